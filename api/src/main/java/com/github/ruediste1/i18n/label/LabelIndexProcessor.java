@@ -0,0 +1,352 @@
+package com.github.ruediste1.i18n.label;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation processor writing an index of the labels declared on the fields,
+ * methods and method parameters of each class. The i18n library reads the
+ * index instead of inspecting the annotations using reflection.
+ *
+ * <p>
+ * The processor is not registered as service, thus it does not run
+ * implicitly. Enable it by passing
+ * {@code -processor com.github.ruediste1.i18n.label.LabelIndexProcessor} to
+ * the compiler, or by listing it in the {@code annotationProcessors} of the
+ * maven-compiler-plugin. An index is written for classes
+ * containing {@link Label}, {@link Labeled} or {@link LabelVariant}
+ * annotations on their members, and for classes annotated with
+ * {@link PropertiesLabeled}, {@link MembersLabeled}, {@link MethodsLabeled}
+ * or {@link ParametersLabeled}.
+ *
+ * <p>
+ * The index of a class is a properties file located at
+ * {@value #INDEX_LOCATION}{@code <binary class name>}{@value #INDEX_SUFFIX}.
+ * For every labeled element, it contains the labels in the order they are
+ * found using reflection:
+ *
+ * <pre>
+ * &lt;element>.count=&lt;number of labels>
+ * &lt;element>.&lt;i>.variant=&lt;variant>
+ * &lt;element>.&lt;i>.label=&lt;label, missing if the fallback is used>
+ * </pre>
+ *
+ * Elements are identified by {@code field.<name>},
+ * {@code method.<name><descriptor>} and
+ * {@code method.<name><descriptor>#<parameter index>}. In addition, the index
+ * contains the {@link #signatureHash(Collection) hash} of the fields and
+ * methods of the class under the key {@value #SIGNATURE_HASH_KEY}. An index
+ * whose hash does not match the class is stale and is ignored.
+ */
+@SupportedAnnotationTypes("*")
+public class LabelIndexProcessor extends AbstractProcessor {
+
+    public static final String INDEX_LOCATION = "META-INF/i18n/labels/";
+    public static final String INDEX_SUFFIX = ".properties";
+    public static final String SIGNATURE_HASH_KEY = "signatureHash";
+
+    private final Set<String> processedTypes = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations,
+            RoundEnvironment roundEnv) {
+        for (TypeElement type : ElementFilter.typesIn(roundEnv
+                .getRootElements())) {
+            processType(type);
+        }
+        return false;
+    }
+
+    private void processType(TypeElement type) {
+        String binaryName = processingEnv.getElementUtils()
+                .getBinaryName(type).toString();
+        if (!processedTypes.add(binaryName))
+            return;
+
+        Map<String, String> index = new TreeMap<>();
+        List<String> memberIds = new ArrayList<>();
+        boolean complete = true;
+        for (Element member : type.getEnclosedElements()) {
+            switch (member.getKind()) {
+            case FIELD:
+            case ENUM_CONSTANT:
+                memberIds.add("field." + member.getSimpleName());
+                addLabels(index, "field." + member.getSimpleName(), member);
+                break;
+            case METHOD: {
+                ExecutableElement method = (ExecutableElement) member;
+                String descriptor = getDescriptor(method);
+                if (descriptor == null) {
+                    complete = false;
+                    break;
+                }
+                String id = "method." + method.getSimpleName() + descriptor;
+                memberIds.add(id);
+                addLabels(index, id, method);
+                List<? extends VariableElement> parameters = method
+                        .getParameters();
+                for (int i = 0; i < parameters.size(); i++) {
+                    addLabels(index, id + "#" + i, parameters.get(i));
+                }
+                break;
+            }
+            case CLASS:
+            case ENUM:
+            case INTERFACE:
+                processType((TypeElement) member);
+                break;
+            default:
+            }
+        }
+
+        if (!complete)
+            return;
+        if (index.isEmpty()
+                && type.getAnnotation(PropertiesLabeled.class) == null
+                && type.getAnnotation(MembersLabeled.class) == null
+                && type.getAnnotation(MethodsLabeled.class) == null
+                && type.getAnnotation(ParametersLabeled.class) == null)
+            return;
+        index.put(SIGNATURE_HASH_KEY, signatureHash(memberIds));
+        writeIndex(type, binaryName, index);
+    }
+
+    /**
+     * Compute the hash identifying the fields and methods of a class, given
+     * the ids of the members in any order. Used to detect indexes which do not
+     * belong to the class they are found for, for example because the class
+     * has been recompiled without running the processor. The hash is the hex
+     * encoded SHA-256 digest of the sorted ids.
+     */
+    public static String signatureHash(Collection<String> memberIds) {
+        List<String> sorted = new ArrayList<>(memberIds);
+        Collections.sort(sorted);
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 not available", e);
+        }
+        StringBuilder sb = new StringBuilder();
+        for (byte b : digest.digest(String.join("\n", sorted).getBytes(
+                StandardCharsets.UTF_8))) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(
+                    Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Add the labels of an element, following the rules used by the
+     * {@code LabelUtil} when reading the annotations using reflection
+     */
+    private void addLabels(Map<String, String> index, String id,
+            Element element) {
+        List<String[]> labels = new ArrayList<>();
+        Set<String> seenVariants = new HashSet<>();
+
+        for (Label label : element.getAnnotationsByType(Label.class)) {
+            if (seenVariants.add(label.variant()))
+                labels.add(new String[] { label.variant(), label.value() });
+        }
+
+        Labeled labeled = element.getAnnotation(Labeled.class);
+        if (labeled != null) {
+            List<String> variants = new ArrayList<>();
+            variants.add("");
+            for (String variant : labeled.variants())
+                variants.add(variant);
+            for (String variant : variants) {
+                if (seenVariants.add(variant))
+                    labels.add(new String[] { variant, null });
+            }
+        }
+
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            Element annotationType = annotation.getAnnotationType()
+                    .asElement();
+            LabelVariant labelVariant = annotationType
+                    .getAnnotation(LabelVariant.class);
+            Retention retention = annotationType
+                    .getAnnotation(Retention.class);
+            // only runtime annotations are visible to reflection
+            if (labelVariant == null || retention == null
+                    || retention.value() != RetentionPolicy.RUNTIME)
+                continue;
+            for (Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : processingEnv
+                    .getElementUtils()
+                    .getElementValuesWithDefaults(annotation).entrySet()) {
+                if (entry.getKey().getSimpleName().contentEquals("value"))
+                    labels.add(new String[] { labelVariant.value(),
+                            String.valueOf(entry.getValue().getValue()) });
+            }
+        }
+
+        if (labels.isEmpty())
+            return;
+        index.put(id + ".count", String.valueOf(labels.size()));
+        for (int i = 0; i < labels.size(); i++) {
+            index.put(id + "." + i + ".variant", labels.get(i)[0]);
+            if (labels.get(i)[1] != null)
+                index.put(id + "." + i + ".label", labels.get(i)[1]);
+        }
+    }
+
+    /**
+     * Return the descriptor of a method, as used in the class file, or null if
+     * a type could not be resolved
+     */
+    private String getDescriptor(ExecutableElement method) {
+        StringBuilder sb = new StringBuilder("(");
+        for (VariableElement parameter : method.getParameters()) {
+            if (!appendDescriptor(sb, parameter.asType()))
+                return null;
+        }
+        sb.append(')');
+        if (!appendDescriptor(sb, method.getReturnType()))
+            return null;
+        return sb.toString();
+    }
+
+    private boolean appendDescriptor(StringBuilder sb, TypeMirror type) {
+        TypeMirror erased = processingEnv.getTypeUtils().erasure(type);
+        switch (erased.getKind()) {
+        case BOOLEAN:
+            sb.append('Z');
+            return true;
+        case BYTE:
+            sb.append('B');
+            return true;
+        case CHAR:
+            sb.append('C');
+            return true;
+        case SHORT:
+            sb.append('S');
+            return true;
+        case INT:
+            sb.append('I');
+            return true;
+        case LONG:
+            sb.append('J');
+            return true;
+        case FLOAT:
+            sb.append('F');
+            return true;
+        case DOUBLE:
+            sb.append('D');
+            return true;
+        case VOID:
+            sb.append('V');
+            return true;
+        case ARRAY:
+            sb.append('[');
+            return appendDescriptor(sb,
+                    ((ArrayType) erased).getComponentType());
+        case DECLARED:
+            sb.append('L')
+                    .append(processingEnv
+                            .getElementUtils()
+                            .getBinaryName(
+                                    (TypeElement) ((DeclaredType) erased)
+                                            .asElement()).toString()
+                            .replace('.', '/')).append(';');
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    private void writeIndex(TypeElement type, String binaryName,
+            Map<String, String> index) {
+        try (Writer writer = processingEnv
+                .getFiler()
+                .createResource(StandardLocation.CLASS_OUTPUT, "",
+                        INDEX_LOCATION + binaryName + INDEX_SUFFIX, type)
+                .openWriter()) {
+            for (Entry<String, String> entry : index.entrySet()) {
+                writer.write(escape(entry.getKey()));
+                writer.write('=');
+                writer.write(escape(entry.getValue()));
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Kind.ERROR,
+                    "Unable to write label index: " + e.getMessage(), type);
+        }
+    }
+
+    /**
+     * Escape a key or value for a properties file, encoding all non ASCII
+     * characters
+     */
+    private static String escape(String str) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            switch (c) {
+            case '\\':
+            case '=':
+            case ':':
+            case '#':
+            case '!':
+            case ' ':
+                sb.append('\\').append(c);
+                break;
+            case '\t':
+                sb.append("\\t");
+                break;
+            case '\n':
+                sb.append("\\n");
+                break;
+            case '\r':
+                sb.append("\\r");
+                break;
+            case '\f':
+                sb.append("\\f");
+                break;
+            default:
+                if (c < 0x20 || c > 0x7e)
+                    sb.append(String.format("\\u%04x", (int) c));
+                else
+                    sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,42 @@
+package com.github.ruediste1.i18n;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the {@link GCProfiler}, once using a single thread
+ * and once using one thread per available processor.
+ *
+ * <p>
+ * The usual JMH command line options are accepted, for example a regular
+ * expression to select the benchmarks to run:
+ *
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar MessageFormatBenchmark
+ * </pre>
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException,
+            CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+
+        Set<Integer> threadCounts = new LinkedHashSet<>();
+        threadCounts.add(1);
+        threadCounts.add(Runtime.getRuntime().availableProcessors());
+
+        for (int threads : threadCounts) {
+            Options options = new OptionsBuilder().parent(commandLine)
+                    .addProfiler(GCProfiler.class).threads(threads).build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.github.ruediste1.i18n.lString;
+
+import java.util.ListResourceBundle;
+import java.util.Locale;
+import java.util.ResourceBundle;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link ResouceBundleTranslatedStringResolver#resolve(TranslatedString, Locale)}
+ * for keys found in the resource bundle and for keys falling back to the
+ * fallback of the {@link TranslatedString}, and compares it with the
+ * {@link FlattenedTranslatedStringResolver} and the
+ * {@link MemoizingTranslatedStringResolver}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResolverBenchmark {
+
+    private static final int KEY_COUNT = 1000;
+
+    private ResouceBundleTranslatedStringResolver resolver;
+    private FlattenedTranslatedStringResolver flattenedResolver;
+    private MemoizingTranslatedStringResolver memoizingResolver;
+    private TranslatedString present;
+    private TranslatedString missing;
+    private TranslatedString memoizedPresent;
+    private TranslatedString memoizedMissing;
+
+    @Setup
+    public void setup() {
+        Object[][] contents = new Object[KEY_COUNT][];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            contents[i] = new Object[] { "com.example.Key" + i, "Value " + i };
+        }
+        ResourceBundle bundle = new ListResourceBundle() {
+            @Override
+            protected Object[][] getContents() {
+                return contents;
+            }
+        };
+
+        resolver = new ResouceBundleTranslatedStringResolver();
+        resolver.resolver = locale -> bundle;
+        flattenedResolver = new FlattenedTranslatedStringResolver();
+        flattenedResolver.resolver = resolver.resolver;
+        present = new TranslatedString(resolver, "com.example.Key"
+                + (KEY_COUNT / 2), "Fallback");
+        missing = new TranslatedString(resolver, "com.example.Missing",
+                "Fallback");
+        memoizingResolver = new MemoizingTranslatedStringResolver(resolver);
+        memoizedPresent = new TranslatedString(memoizingResolver,
+                present.getResourceKey(), "Fallback");
+        memoizedMissing = new TranslatedString(memoizingResolver,
+                missing.getResourceKey(), "Fallback");
+    }
+
+    @Benchmark
+    public String resolvePresent() {
+        return resolver.resolve(present, Locale.ENGLISH);
+    }
+
+    @Benchmark
+    public String resolveFallback() {
+        return resolver.resolve(missing, Locale.ENGLISH);
+    }
+
+    @Benchmark
+    public String resolvePresentFlattened() {
+        return flattenedResolver.resolve(present, Locale.ENGLISH);
+    }
+
+    @Benchmark
+    public String resolveFallbackFlattened() {
+        return flattenedResolver.resolve(missing, Locale.ENGLISH);
+    }
+
+    @Benchmark
+    public String resolvePresentMemoized() {
+        return memoizedPresent.resolve(Locale.ENGLISH);
+    }
+
+    @Benchmark
+    public String resolveFallbackMemoized() {
+        return memoizedMissing.resolve(Locale.ENGLISH);
+    }
+}
@@ -0,0 +1,148 @@
+package com.github.ruediste1.i18n.label;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.io.ByteStreams;
+
+/**
+ * Measures the time to extract the labels of classes seen for the first time,
+ * as during application startup, with and without the label index. The
+ * classes are loaded by a new class loader for each invocation, thus neither
+ * the labels nor the index are cached.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 50)
+@Measurement(iterations = 200)
+@Fork(3)
+public class LabelStartupBenchmark {
+
+    /**
+     * Labeled classes, loaded by a new class loader for each invocation
+     */
+    public static class Model {
+        @Labeled
+        @PropertiesLabeled(variants = { "short" })
+        @MethodsLabeled
+        public static class Customer {
+            public String getName() {
+                return null;
+            }
+
+            @Label("E-Mail Address")
+            @Label(value = "E-Mail", variant = "short")
+            public String getEmail() {
+                return null;
+            }
+
+            @Label("Date of Birth")
+            public String getBirthDate() {
+                return null;
+            }
+
+            @Label("Send Reminder")
+            public void sendReminder() {
+            }
+
+            public void merge(@Label("Other Customer") Customer other) {
+            }
+        }
+
+        @Labeled
+        @PropertiesLabeled
+        public static class Address {
+            public String getStreet() {
+                return null;
+            }
+
+            @Label("ZIP")
+            public String getZipCode() {
+                return null;
+            }
+
+            public String getCity() {
+                return null;
+            }
+        }
+
+        @MembersLabeled
+        public enum CustomerState {
+            ACTIVE, @Label("On Hold") SUSPENDED, CLOSED
+        }
+    }
+
+    /**
+     * Defines the {@link Model} classes itself, delegating all other classes
+     * and all resources to the parent
+     */
+    private static class ModelClassLoader extends ClassLoader {
+        private static final String PREFIX = Model.class.getName();
+
+        ModelClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve)
+                throws ClassNotFoundException {
+            if (!name.startsWith(PREFIX))
+                return super.loadClass(name, resolve);
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> cls = findLoadedClass(name);
+                if (cls == null) {
+                    byte[] bytes;
+                    try (InputStream in = getParent().getResourceAsStream(
+                            name.replace('.', '/') + ".class")) {
+                        bytes = ByteStreams.toByteArray(in);
+                    } catch (IOException e) {
+                        throw new ClassNotFoundException(name, e);
+                    }
+                    cls = defineClass(name, bytes, 0, bytes.length);
+                }
+                return cls;
+            }
+        }
+    }
+
+    @Param({ "true", "false" })
+    public boolean labelIndexEnabled;
+
+    private Class<?>[] classes;
+
+    @Setup(Level.Invocation)
+    public void setup() throws Exception {
+        ModelClassLoader loader = new ModelClassLoader(getClass()
+                .getClassLoader());
+        classes = new Class<?>[] {
+                loader.loadClass(Model.Customer.class.getName()),
+                loader.loadClass(Model.Address.class.getName()),
+                loader.loadClass(Model.CustomerState.class.getName()) };
+    }
+
+    @Benchmark
+    public int extractLabels() {
+        LabelUtil util = new LabelUtil((str, locale) -> str.getFallback());
+        util.setLabelIndexEnabled(labelIndexEnabled);
+        int count = 0;
+        for (Class<?> cls : classes) {
+            count += util.getLabelsDefinedOn(cls).size();
+        }
+        return count;
+    }
+}
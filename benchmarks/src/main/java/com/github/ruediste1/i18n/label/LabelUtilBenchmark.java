@@ -0,0 +1,88 @@
+package com.github.ruediste1.i18n.label;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.ruediste1.i18n.lString.TranslatedString;
+
+/**
+ * Benchmarks the label lookups of the {@link LabelUtil}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LabelUtilBenchmark {
+
+    @Labeled
+    @PropertiesLabeled(variants = { "short" })
+    @MethodsLabeled
+    public static class Customer {
+        public String getName() {
+            return null;
+        }
+
+        @Label("E-Mail Address")
+        @Label(value = "E-Mail", variant = "short")
+        public String getEmail() {
+            return null;
+        }
+
+        @Label("Send Reminder")
+        public void sendReminder() {
+        }
+    }
+
+    @MembersLabeled
+    public enum CustomerState {
+        ACTIVE, @Label("On Hold") SUSPENDED
+    }
+
+    private LabelUtil util;
+    private Method method;
+
+    @Setup
+    public void setup() throws Exception {
+        util = new LabelUtil((str, locale) -> str.getFallback());
+        method = Customer.class.getMethod("sendReminder");
+    }
+
+    @Benchmark
+    public TranslatedString property() {
+        return util.property(Customer.class, "email").label();
+    }
+
+    @Benchmark
+    public TranslatedString propertyVariant() {
+        return util.property(Customer.class, "email").variant("short")
+                .label();
+    }
+
+    @Benchmark
+    public TranslatedString enumMember() {
+        return util.enumMember(CustomerState.SUSPENDED).label();
+    }
+
+    @Benchmark
+    public TranslatedString method() {
+        return util.method(method).label();
+    }
+
+    @Benchmark
+    public TranslatedString type() {
+        return util.type(Customer.class).label();
+    }
+}
@@ -0,0 +1,64 @@
+package com.github.ruediste1.i18n.message;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.ruediste1.i18n.lString.PatternString;
+import com.github.ruediste1.i18n.lString.TranslatedString;
+
+/**
+ * Benchmarks calls to message interface instances created by the
+ * {@link TMessageUtil}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TMessageUtilBenchmark {
+
+    @TMessages
+    public interface Messages {
+        TranslatedString noItemFound();
+
+        @TMessage("Welcome back, {name}")
+        PatternString welcome(String name);
+
+        @TMessage("There are {count} users in {group}")
+        PatternString userCount(int count, String group);
+    }
+
+    private Messages messages;
+
+    @Setup
+    public void setup() {
+        messages = new TMessageUtil().getMessageInterfaceInstance(
+                Messages.class);
+    }
+
+    @Benchmark
+    public TranslatedString translatedString() {
+        return messages.noItemFound();
+    }
+
+    @Benchmark
+    public PatternString patternString() {
+        return messages.welcome("Jane");
+    }
+
+    @Benchmark
+    public PatternString patternStringTwoArguments() {
+        return messages.userCount(42, "admins");
+    }
+}
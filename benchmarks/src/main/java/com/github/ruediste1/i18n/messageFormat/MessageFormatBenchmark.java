@@ -0,0 +1,74 @@
+package com.github.ruediste1.i18n.messageFormat;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link MessageFormat#format(String, Map, Locale)} for different
+ * kinds of patterns. The patterns are taken from the pattern cache, thus
+ * parsing is not measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageFormatBenchmark {
+
+    private static final String PLAIN = "Hello {name}, welcome back!";
+    private static final String NUMBER = "{amount, number} of {total, number, integer} ({ratio, number, percent})";
+    private static final String DATE = "Last login on {date, date} at {date, time, short}";
+    private static final String NESTED_PLURAL = "{files, plural, one {one file} other {# files}} in "
+            + "{folders, plural, one {one folder of {name}} other {# folders of {name}, {files, plural, one {one file} other {# files}} each}}";
+
+    private MessageFormat format;
+    private Map<String, Object> args;
+
+    @Setup
+    public void setup() {
+        format = new MessageFormat();
+        args = new HashMap<>();
+        args.put("name", "Jane");
+        args.put("amount", 1234.5);
+        args.put("total", 5000);
+        args.put("ratio", 0.25);
+        args.put("date", LocalDateTime.of(2015, 3, 4, 10, 11, 12));
+        args.put("files", 12);
+        args.put("folders", 3);
+    }
+
+    @Benchmark
+    public String plain() {
+        return format.format(PLAIN, args, Locale.ENGLISH);
+    }
+
+    @Benchmark
+    public String number() {
+        return format.format(NUMBER, args, Locale.ENGLISH);
+    }
+
+    @Benchmark
+    public String date() {
+        return format.format(DATE, args, Locale.ENGLISH);
+    }
+
+    @Benchmark
+    public String nestedPlural() {
+        return format.format(NESTED_PLURAL, args, Locale.ENGLISH);
+    }
+}
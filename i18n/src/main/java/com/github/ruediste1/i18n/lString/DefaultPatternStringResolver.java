@@ -1,9 +1,14 @@
 package com.github.ruediste1.i18n.lString;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
 
 import javax.inject.Inject;
 
+import com.github.ruediste1.i18n.messageFormat.CompiledMessage;
 import com.github.ruediste1.i18n.messageFormat.MessageFormat;
 
 /**
@@ -20,4 +25,30 @@ public class DefaultPatternStringResolver implements PatternStringResolver{
 		return format.format(pattern, str.getArguments(), locale);
 	}
 
+	/**
+	 * Resolves the pattern for all locales first. Each distinct pattern is
+	 * then compiled only once, and the arguments are converted to the slots of
+	 * the compiled message only once.
+	 */
+	@Override
+	public Map<Locale, String> resolve(PatternString str,
+			Collection<Locale> locales, boolean parallel) {
+		Map<Locale, String> patterns = str.getPattern().resolve(locales,
+				parallel);
+
+		Map<String, Function<Locale, String>> formatters = new HashMap<>();
+		for (String pattern : patterns.values()) {
+			if (formatters.containsKey(pattern))
+				continue;
+			CompiledMessage message = format.compile(pattern);
+			Object[] arguments = message.getArgumentSlots().values(
+					str.getArguments());
+			formatters.put(pattern,
+					locale -> message.format(arguments, locale));
+		}
+
+		return LString.resolveEach(locales, parallel,
+				locale -> formatters.get(patterns.get(locale)).apply(locale));
+	}
+
 }
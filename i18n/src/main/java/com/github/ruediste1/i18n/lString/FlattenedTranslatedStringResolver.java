@@ -0,0 +1,184 @@
+package com.github.ruediste1.i18n.lString;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * {@link ResouceBundleTranslatedStringResolver} flattening the resource
+ * bundle of each locale into a single table when the locale is first used.
+ *
+ * <p>
+ * The table contains the keys of the bundle and its parents as well as the
+ * additional resource keys, with the same precedence as used by the
+ * {@link ResouceBundleTranslatedStringResolver}. Resolving a string thus
+ * takes a single lookup, and the tables are never modified once created, so
+ * reads do not lock.
+ *
+ * <p>
+ * The keys of the tables are assigned dense ids, and each table is
+ * accompanied by an array of its values indexed by the ids. When a
+ * {@link TranslatedString} is resolved for the first time, the id of its key
+ * is remembered in a map referencing the strings weakly and comparing them by
+ * identity. Resolving the same instance again uses the array without hashing
+ * the key, thus use {@link TranslatedString#intern interned} strings. The ids
+ * are owned by the resolver and are reassigned when the tables are cleared.
+ *
+ * <p>
+ * Changes to the resource bundles are not picked up until {@link #clear()} is
+ * called. Values which are not strings are ignored. Missing keys are counted
+ * like by the {@link ResouceBundleTranslatedStringResolver}. The tables take
+ * the place of the negative cache, which is not used.
+ */
+public class FlattenedTranslatedStringResolver extends
+        ResouceBundleTranslatedStringResolver {
+
+    /**
+     * Dense ids of the keys of the tables created since the tables have last
+     * been cleared
+     */
+    private static final class KeyIds {
+        private final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<>();
+        private final AtomicInteger nextId = new AtomicInteger();
+
+        /**
+         * Ids of the keys of the strings resolved so far
+         */
+        private final Cache<TranslatedString, Integer> stringIds = CacheBuilder
+                .newBuilder().weakKeys().build();
+
+        int getId(String key) {
+            Integer id = ids.get(key);
+            if (id == null) {
+                id = ids.computeIfAbsent(key, x -> nextId.getAndIncrement());
+            }
+            return id;
+        }
+    }
+
+    private static final class Table {
+        final Map<String, String> values;
+
+        /**
+         * Ids the array is indexed by
+         */
+        final KeyIds keyIds;
+
+        /**
+         * Values indexed by key id. Covers all ids assigned when the table was
+         * created, null for keys not contained in the table.
+         */
+        final String[] valuesById;
+
+        Table(Map<String, String> values, KeyIds keyIds) {
+            this.values = Collections.unmodifiableMap(values);
+            this.keyIds = keyIds;
+            // assign ids to all keys before sizing the array
+            Map<String, Integer> ids = new HashMap<>();
+            for (String key : values.keySet()) {
+                ids.put(key, keyIds.getId(key));
+            }
+            valuesById = new String[keyIds.nextId.get()];
+            for (Map.Entry<String, Integer> entry : ids.entrySet()) {
+                valuesById[entry.getValue()] = values.get(entry.getKey());
+            }
+        }
+
+        /**
+         * Return the value of the given string, or null if the key is not
+         * contained in the table
+         */
+        String get(TranslatedString str) {
+            Integer id = keyIds.stringIds.getIfPresent(str);
+            if (id == null) {
+                // all keys of the table have an id
+                id = keyIds.ids.get(str.getResourceKey());
+                if (id == null)
+                    return null;
+                keyIds.stringIds.put(str, id);
+            }
+            return id < valuesById.length ? valuesById[id] : null;
+        }
+    }
+
+    /**
+     * Tables built since the tables have last been cleared, along with the
+     * ids assigned to their keys. Replaced as a whole when clearing, thus a
+     * table built from the previous bundles while clearing is never served
+     * afterwards.
+     */
+    private static final class Tables {
+        final KeyIds keyIds = new KeyIds();
+        final ConcurrentMap<Locale, Table> byLocale = new ConcurrentHashMap<>();
+    }
+
+    private volatile Tables tables = new Tables();
+
+    @Override
+    public void registerAdditionalResourceKeys(
+            Iterable<Class<? extends AdditionalResourceKeyProvider>> providerClasses) {
+        super.registerAdditionalResourceKeys(providerClasses);
+        clear();
+    }
+
+    /**
+     * Drop all tables. The tables are rebuilt from the resource bundles when
+     * the locales are used again. The missing key counts are kept.
+     */
+    public void clear() {
+        tables = new Tables();
+    }
+
+    /**
+     * Return the flattened table of the given locale, building it if
+     * necessary
+     */
+    public Map<String, String> getTable(Locale locale) {
+        return table(locale).values;
+    }
+
+    private Table table(Locale locale) {
+        Tables current = tables;
+        Table table = current.byLocale.get(locale);
+        if (table == null) {
+            table = current.byLocale.computeIfAbsent(locale,
+                    x -> createTable(x, current.keyIds));
+        }
+        return table;
+    }
+
+    /**
+     * Return the id assigned to the key of the given string, or null if the
+     * string has not been resolved since the tables have last been cleared
+     */
+    Integer getKeyId(TranslatedString str) {
+        return tables.keyIds.stringIds.getIfPresent(str);
+    }
+
+    private Table createTable(Locale locale, KeyIds keyIds) {
+        Map<String, String> table = new HashMap<>(additionalResourceKeys);
+        ResourceBundle bundle = resolver.getResourceBundle(locale);
+        for (String key : bundle.keySet()) {
+            Object value = bundle.getObject(key);
+            if (value instanceof String)
+                table.put(key, (String) value);
+        }
+        return new Table(table, keyIds);
+    }
+
+    @Override
+    public String resolve(TranslatedString str, Locale locale) {
+        String value = table(locale).get(str);
+        if (value != null)
+            return value;
+        return resolveMissing(str, locale);
+    }
+}
@@ -1,8 +1,14 @@
 package com.github.ruediste1.i18n.lString;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 /**
  * Represents a localized string, which can be resolved for any locale.
@@ -15,6 +21,51 @@ public class LString {
         return "";
     }
 
+    /**
+     * Resolve this string for each of the given locales. The returned map
+     * iterates in the order of the locales.
+     */
+    public Map<Locale, String> resolve(Collection<Locale> locales) {
+        return resolve(locales, false);
+    }
+
+    /**
+     * Resolve this string for each of the given locales, processing the
+     * locales in parallel on the common fork join pool. The returned map
+     * iterates in the order of the locales.
+     */
+    public Map<Locale, String> resolveParallel(Collection<Locale> locales) {
+        return resolve(locales, true);
+    }
+
+    /**
+     * Resolve this string for each of the given locales. Subclasses can
+     * override this method to share work between the locales. By default,
+     * {@link #resolve(Locale)} is called for each locale.
+     */
+    protected Map<Locale, String> resolve(Collection<Locale> locales,
+            boolean parallel) {
+        return resolveEach(locales, parallel, this::resolve);
+    }
+
+    /**
+     * Apply the function to each locale, optionally in parallel, and return
+     * the results in a map iterating in the order of the locales
+     */
+    static Map<Locale, String> resolveEach(Collection<Locale> locales,
+            boolean parallel, Function<Locale, String> function) {
+        List<Locale> list = new ArrayList<>(locales);
+        String[] values = new String[list.size()];
+        IntStream indexes = IntStream.range(0, values.length);
+        (parallel ? indexes.parallel() : indexes).forEach(i -> values[i] = function
+                .apply(list.get(i)));
+        Map<Locale, String> result = new LinkedHashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            result.put(list.get(i), values[i]);
+        }
+        return result;
+    }
+
     private static LString EMPTY = new LString();
 
     public static LString empty() {
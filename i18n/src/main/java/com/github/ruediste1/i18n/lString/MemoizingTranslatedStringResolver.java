@@ -0,0 +1,134 @@
+package com.github.ruediste1.i18n.lString;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * {@link TranslatedStringResolver} remembering the strings resolved by a
+ * delegate. Use it to wrap the resolver of {@link TranslatedString}s which are
+ * resolved many times, such as labels.
+ *
+ * <p>
+ * Each locale is assigned a small integer id when it is first used. The
+ * resolved values are stored in an array indexed by the locale id, which is
+ * kept in a map referencing the {@link TranslatedString}s weakly and comparing
+ * them by identity. Thus looking up a memoized value does not hash the
+ * resource key and does not lock. The values are only shared between equal
+ * strings if the same instance is used.
+ *
+ * <p>
+ * The values are assumed not to change until {@link #invalidate()} is
+ * called, which drops all values at once. Call it whenever the translations
+ * of the delegate are reloaded. Null values and exceptions are not memoized.
+ */
+public class MemoizingTranslatedStringResolver implements
+        TranslatedStringResolver {
+
+    /**
+     * Maximum number of locales memoized. Strings are resolved by the delegate
+     * for all further locales.
+     */
+    static final int MAX_LOCALES = 64;
+
+    private final TranslatedStringResolver delegate;
+
+    private final ConcurrentMap<Locale, Integer> localeIds = new ConcurrentHashMap<>();
+    private final AtomicInteger nextLocaleId = new AtomicInteger();
+    private final AtomicInteger generation = new AtomicInteger();
+
+    /**
+     * Values resolved for a {@link TranslatedString}, indexed by locale id.
+     * Instances are safely published through their final fields. The
+     * elements of the value array are written racily, which is harmless since
+     * the same value is written by all threads and strings are immutable.
+     */
+    private static final class Memo {
+        final int generation;
+        final String[] values;
+
+        Memo(int generation, String[] values) {
+            this.generation = generation;
+            this.values = values;
+        }
+    }
+
+    /**
+     * Memoized values by string. The strings are referenced weakly and
+     * compared by identity.
+     */
+    private final Cache<TranslatedString, Memo> memos = CacheBuilder
+            .newBuilder().weakKeys().build();
+
+    public MemoizingTranslatedStringResolver(
+            TranslatedStringResolver delegate) {
+        this.delegate = delegate;
+    }
+
+    public TranslatedStringResolver getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Drop all memoized values. Strings resolved concurrently to this call
+     * might still return the previous value.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Return the id of the given locale, or -1 if the maximum number of
+     * locales has been reached
+     */
+    int getLocaleId(Locale locale) {
+        Integer id = localeIds.get(locale);
+        if (id == null) {
+            if (localeIds.size() >= MAX_LOCALES)
+                return -1;
+            id = localeIds.computeIfAbsent(locale,
+                    x -> nextLocaleId.getAndIncrement());
+        }
+        return id < MAX_LOCALES ? id : -1;
+    }
+
+    @Override
+    public String resolve(TranslatedString str, Locale locale) {
+        int id = getLocaleId(locale);
+        if (id < 0)
+            return delegate.resolve(str, locale);
+
+        // read the generation before resolving, values resolved while
+        // invalidating are thus dropped with the generation
+        int currentGeneration = generation.get();
+        Memo memo = memos.getIfPresent(str);
+        if (memo != null && memo.generation != currentGeneration)
+            memo = null;
+        if (memo != null && id < memo.values.length) {
+            String value = memo.values[id];
+            if (value != null)
+                return value;
+        }
+
+        String value = delegate.resolve(str, locale);
+        if (value == null)
+            return null;
+
+        if (memo != null && id < memo.values.length)
+            memo.values[id] = value;
+        else {
+            String[] values = new String[Math.max(id + 1,
+                    Math.min(nextLocaleId.get(), MAX_LOCALES))];
+            if (memo != null)
+                System.arraycopy(memo.values, 0, values, 0,
+                        memo.values.length);
+            values[id] = value;
+            memos.put(str, new Memo(currentGeneration, values));
+        }
+        return value;
+    }
+}
@@ -1,10 +1,12 @@
 package com.github.ruediste1.i18n.lString;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 
+import com.github.ruediste1.i18n.messageFormat.MessageArguments;
 import com.google.common.base.Objects;
 
 /**
@@ -24,7 +26,21 @@ public class PatternString extends LString {
     public PatternString(PatternStringResolver resolver, LString pattern, Map<String, Object> arguments) {
         this.resolver = resolver;
         this.pattern = pattern;
-        this.arguments = new HashMap<>(arguments);
+        if (arguments instanceof MessageArguments)
+            this.arguments = arguments;
+        else
+            this.arguments = new HashMap<>(arguments);
+    }
+
+    /**
+     * Construct a {@link PatternString} using the given arguments. Since
+     * {@link MessageArguments} are immutable, they are not copied and are
+     * passed on to the {@link PatternStringResolver} as they are.
+     */
+    public PatternString(PatternStringResolver resolver, LString pattern, MessageArguments arguments) {
+        this.resolver = resolver;
+        this.pattern = pattern;
+        this.arguments = arguments;
     }
 
     /**
@@ -49,7 +65,12 @@ public class PatternString extends LString {
         }
     }
 
+    /**
+     * Return a read only view of the arguments
+     */
     public Map<String, Object> getArguments() {
+        if (arguments instanceof MessageArguments)
+            return arguments;
         return Collections.unmodifiableMap(arguments);
     }
 
@@ -96,4 +117,9 @@ public class PatternString extends LString {
     public String resolve(Locale locale) {
         return resolver.resolve(this, locale);
     }
+
+    @Override
+    protected Map<Locale, String> resolve(Collection<Locale> locales, boolean parallel) {
+        return resolver.resolve(this, locales, parallel);
+    }
 }
@@ -1,6 +1,8 @@
 package com.github.ruediste1.i18n.lString;
 
+import java.util.Collection;
 import java.util.Locale;
+import java.util.Map;
 
 /**
  * A resolver for {@link PatternString}s.
@@ -11,4 +13,17 @@ public interface PatternStringResolver {
 	 * Resolve the {@link PatternString#getPattern()} and format it based on the locale and the {@link PatternString#getArguments()}
 	 */
 	String resolve(PatternString str, Locale locale);
+
+	/**
+	 * Resolve the string for each of the given locales, optionally processing
+	 * the locales in parallel. The returned map iterates in the order of the
+	 * locales. Implementations can override this method to share work between
+	 * the locales, by default {@link #resolve(PatternString, Locale)} is
+	 * called for each locale.
+	 */
+	default Map<Locale, String> resolve(PatternString str,
+			Collection<Locale> locales, boolean parallel) {
+		return LString.resolveEach(locales, parallel,
+				locale -> resolve(str, locale));
+	}
 }
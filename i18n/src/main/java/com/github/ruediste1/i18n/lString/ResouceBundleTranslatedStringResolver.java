@@ -3,41 +3,157 @@ package com.github.ruediste1.i18n.lString;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.MissingResourceException;
 import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
 
 import javax.inject.Inject;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * {@link TranslatedStringResolver} looking up the translations in the
+ * resource bundles provided by a {@link ResourceBundleResolver}. If a key is
+ * not found in the bundle, the additional resource keys and then the fallback
+ * of the {@link TranslatedString} are used.
+ *
+ * <p>
+ * Optionally, keys missing in the bundle of a locale are remembered, thus the
+ * bundle is only searched once per key and locale. This negative cache is
+ * disabled by default. Enable it using {@link #setNegativeCacheSize(long)}.
+ *
+ * <p>
+ * Each time a string is resolved using its fallback or cannot be resolved at
+ * all, the key is counted. The counts can be retrieved using
+ * {@link #getMissingKeyCounts()}, to find the translations used most often.
+ * Since keys and locales are supplied by the callers, at most
+ * {@link #setMaxMissingKeyCounts(int) a number of} keys are counted.
+ */
 public class ResouceBundleTranslatedStringResolver
         implements TranslatedStringResolver {
 
+    /**
+     * Default maximum number of keys counted by
+     * {@link #getMissingKeyCounts()}, over all locales
+     */
+    public static final int DEFAULT_MAX_MISSING_KEY_COUNTS = 10000;
+
     @Inject
     ResourceBundleResolver resolver;
 
     Map<String, String> additionalResourceKeys = new HashMap<>();
 
+    /**
+     * A key in a locale
+     */
+    private static final class LocaleKey {
+        final Locale locale;
+        final String key;
+
+        LocaleKey(Locale locale, String key) {
+            this.locale = locale;
+            this.key = key;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * locale.hashCode() + key.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof LocaleKey))
+                return false;
+            LocaleKey other = (LocaleKey) obj;
+            return locale.equals(other.locale) && key.equals(other.key);
+        }
+    }
+
+    /**
+     * Keys known not to be contained in the bundle of a locale. Null if the
+     * negative cache is disabled.
+     */
+    private volatile Cache<LocaleKey, Boolean> keysNotInBundle;
+
+    private final ConcurrentMap<LocaleKey, LongAdder> missingKeyCounts = new ConcurrentHashMap<>();
+
+    private volatile int maxMissingKeyCounts = DEFAULT_MAX_MISSING_KEY_COUNTS;
+
     public void registerAdditionalResourceKeys(
             Iterable<Class<? extends AdditionalResourceKeyProvider>> providerClasses) {
         additionalResourceKeys.putAll(
                 AdditionalResourceKeyCollector.collectKeys(providerClasses));
     }
 
+    /**
+     * Remember up to the given number of keys missing in the resource
+     * bundles, over all locales. The least recently used keys are evicted
+     * first. Zero disables the negative cache, which is the default. The keys
+     * remembered so far are dropped.
+     */
+    public void setNegativeCacheSize(long size) {
+        if (size < 0)
+            throw new IllegalArgumentException(
+                    "Negative cache size may not be negative: " + size);
+        keysNotInBundle = size == 0 ? null : CacheBuilder.newBuilder()
+                .maximumSize(size).<LocaleKey, Boolean> build();
+    }
+
+    /**
+     * Count at most the given number of missing keys, over all locales. Keys
+     * missing after the limit has been reached are not counted. Zero disables
+     * the counting.
+     */
+    public void setMaxMissingKeyCounts(int max) {
+        if (max < 0)
+            throw new IllegalArgumentException(
+                    "Maximum number of missing key counts may not be negative: "
+                            + max);
+        maxMissingKeyCounts = max;
+    }
+
     @Override
     public String resolve(TranslatedString str, Locale locale) {
-        ResourceBundle bundle = resolver.getResourceBundle(locale);
+        String key = str.getResourceKey();
 
         // return string from bundle if available
-        if (bundle.containsKey(str.getResourceKey())) {
-            return bundle.getString(str.getResourceKey());
+        Cache<LocaleKey, Boolean> notInBundle = keysNotInBundle;
+        LocaleKey localeKey = notInBundle == null ? null : new LocaleKey(
+                locale, key);
+        if (localeKey == null || notInBundle.getIfPresent(localeKey) == null) {
+            ResourceBundle bundle = resolver.getResourceBundle(locale);
+            if (bundle.containsKey(key)) {
+                return bundle.getString(key);
+            }
+            if (localeKey != null)
+                notInBundle.put(localeKey, Boolean.TRUE);
         }
 
         // check additional resources
         {
-            String value = additionalResourceKeys.get(str.getResourceKey());
+            String value = additionalResourceKeys.get(key);
             if (value != null)
                 return value;
         }
 
+        return resolveMissing(str, locale);
+    }
+
+    /**
+     * Resolve a string for which no translation has been found. The key is
+     * counted as missing and the fallback is returned.
+     * 
+     * @throws MissingResourceException
+     *             if the string has no fallback
+     */
+    protected String resolveMissing(TranslatedString str, Locale locale) {
+        if (maxMissingKeyCounts > 0)
+            countMissing(new LocaleKey(locale, str.getResourceKey()));
+
         // check if fallback is available
         if (str.getFallback() == null) {
             throw new MissingResourceException(
@@ -48,7 +164,51 @@ public class ResouceBundleTranslatedStringResolver
 
         // return fallback string
         return str.getFallback();
+    }
+
+    private void countMissing(LocaleKey key) {
+        LongAdder count = missingKeyCounts.get(key);
+        if (count == null) {
+            // the limit might be exceeded slightly by concurrent resolutions
+            if (missingKeyCounts.size() >= maxMissingKeyCounts)
+                return;
+            count = missingKeyCounts.computeIfAbsent(key,
+                    x -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    /**
+     * Return how often each key has been resolved without translation, per
+     * locale. The returned maps are a snapshot, counts of concurrent
+     * resolutions might be missing.
+     */
+    public Map<Locale, Map<String, Long>> getMissingKeyCounts() {
+        Map<Locale, Map<String, Long>> result = new HashMap<>();
+        for (Entry<LocaleKey, LongAdder> entry : missingKeyCounts.entrySet()) {
+            result.computeIfAbsent(entry.getKey().locale,
+                    x -> new HashMap<>()).put(entry.getKey().key,
+                    entry.getValue().sum());
+        }
+        return result;
+    }
+
+    /**
+     * Forget the keys known to be missing in the resource bundles. Should be
+     * called if the resource bundles change. The missing key counts are kept.
+     */
+    public void invalidateMissingKeys() {
+        Cache<LocaleKey, Boolean> notInBundle = keysNotInBundle;
+        if (notInBundle != null)
+            notInBundle.invalidateAll();
+    }
 
+    /**
+     * Reset the missing key counts, for example after they have been
+     * reported
+     */
+    public void resetMissingKeyCounts() {
+        missingKeyCounts.clear();
     }
 
 }
@@ -3,6 +3,8 @@ package com.github.ruediste1.i18n.lString;
 import java.util.Locale;
 
 import com.google.common.base.Objects;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 
 /**
  * A translated string.
@@ -13,11 +15,25 @@ import com.google.common.base.Objects;
  * locale, the resources for the locale are searched for the resourceKey. If no
  * resource is found, the fallback is used (if not null).
  * </p>
+ *
+ * <p>
+ * Use {@link #intern(TranslatedStringResolver, String, String)} to obtain a
+ * canonical instance per resolver, key and fallback. Resolvers can remember
+ * data per instance they resolve, which pays off if the same instance is
+ * resolved many times.
+ * </p>
  */
 public class TranslatedString extends LString {
     final private String resourceKey;
     private final String fallback;
     private final TranslatedStringResolver resolver;
+    private final int hash;
+
+    /**
+     * Interned instances. The instances are referenced weakly, thus they are
+     * dropped together with their resolver once they are no longer used.
+     */
+    private static final Interner<TranslatedString> interner = Interners.newWeakInterner();
 
     public TranslatedString(TranslatedStringResolver resolver, String resourceKey) {
         this(resolver, resourceKey, null);
@@ -27,6 +43,16 @@ public class TranslatedString extends LString {
         this.resolver = resolver;
         this.resourceKey = resourceKey;
         this.fallback = fallback;
+        hash = Objects.hashCode(fallback, resourceKey, resolver);
+    }
+
+    /**
+     * Return the canonical instance for the given resolver, key and fallback.
+     * Interned instances are only kept as long as they are referenced
+     * elsewhere, thus they neither pin the resolver nor its class loader.
+     */
+    public static TranslatedString intern(TranslatedStringResolver resolver, String resourceKey, String fallback) {
+        return interner.intern(new TranslatedString(resolver, resourceKey, fallback));
     }
 
     public String getResourceKey() {
@@ -44,7 +70,7 @@ public class TranslatedString extends LString {
 
     @Override
     public int hashCode() {
-        return Objects.hashCode(fallback, resourceKey, resolver);
+        return hash;
     }
 
     @Override
@@ -56,6 +82,8 @@ public class TranslatedString extends LString {
             return false;
         }
         TranslatedString other = (TranslatedString) obj;
+        if (hash != other.hash)
+            return false;
         return Objects.equal(resourceKey, other.resourceKey) && Objects.equal(fallback, other.fallback)
                 && Objects.equal(resolver, other.resolver);
     }
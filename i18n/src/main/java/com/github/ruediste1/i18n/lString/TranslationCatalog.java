@@ -0,0 +1,261 @@
+package com.github.ruediste1.i18n.lString;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Read only view of a binary catalog written by the
+ * {@link TranslationCatalogWriter}, used as {@link ResourceBundleResolver}.
+ *
+ * <p>
+ * Catalog files are memory mapped, thus the pages are shared between all JVMs
+ * on a host reading the same file. When opening the catalog, only the locales
+ * and the keys are read. Values are decoded from the mapped buffer when they
+ * are looked up.
+ *
+ * <p>
+ * The bundles returned by {@link #getResourceBundle(Locale)} use the fallback
+ * locales of {@link ResourceBundle.Control#getCandidateLocales(String, Locale)},
+ * as {@link ResourceBundle} does: {@code de_CH} falls back to {@code de}, and
+ * scripts and the special cases of Chinese and Norwegian are handled. Like
+ * with the {@link DefaultResourceBundleResolver}, the {@link Locale#ROOT}
+ * translations are only used if requested when opening the catalog, leaving
+ * the fallbacks of the {@link TranslatedString}s to be used otherwise.
+ */
+public class TranslationCatalog implements ResourceBundleResolver {
+
+    private final ByteBuffer buffer;
+    private final boolean useDefaultLocale;
+    private final Map<Locale, Integer> localeIndexes = new HashMap<>();
+    private final Map<String, Integer> keyIndexes = new HashMap<>();
+    private final int keyCount;
+    private final int offsetsStart;
+    private final int valuesStart;
+
+    /**
+     * Control determining the fallback locales of a bundle
+     */
+    private static final ResourceBundle.Control CONTROL = ResourceBundle.Control
+            .getNoFallbackControl(ResourceBundle.Control.FORMAT_DEFAULT);
+
+    private final ConcurrentMap<Locale, ResourceBundle> bundles = new ConcurrentHashMap<>();
+
+    /**
+     * Create a catalog reading from the given buffer. The buffer is not
+     * modified.
+     *
+     * @param useDefaultLocale
+     *            if true, the translations of the {@link Locale#ROOT} are used
+     *            as last fallback
+     */
+    public TranslationCatalog(ByteBuffer buffer, boolean useDefaultLocale) {
+        this.buffer = buffer.duplicate();
+        this.useDefaultLocale = useDefaultLocale;
+        ByteBuffer in = this.buffer.duplicate();
+        if (in.getInt() != TranslationCatalogWriter.MAGIC)
+            throw new RuntimeException("Not a translation catalog");
+        int version = in.getInt();
+        if (version != TranslationCatalogWriter.VERSION)
+            throw new RuntimeException(
+                    "Unsupported translation catalog version " + version);
+        keyCount = in.getInt();
+        int localeCount = in.getInt();
+        for (int i = 0; i < localeCount; i++) {
+            localeIndexes.put(Locale.forLanguageTag(readString(in)), i);
+        }
+        for (int i = 0; i < keyCount; i++) {
+            keyIndexes.put(readString(in), i);
+        }
+        offsetsStart = in.position();
+        valuesStart = offsetsStart + 4 * keyCount * localeCount;
+    }
+
+    /**
+     * Memory map the given catalog file, not using the translations of the
+     * {@link Locale#ROOT}
+     */
+    public static TranslationCatalog open(Path file) throws IOException {
+        return open(file, false);
+    }
+
+    /**
+     * Memory map the given catalog file
+     *
+     * @param useDefaultLocale
+     *            if true, the translations of the {@link Locale#ROOT} are used
+     *            as last fallback
+     */
+    public static TranslationCatalog open(Path file, boolean useDefaultLocale)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.READ)) {
+            return new TranslationCatalog(channel.map(MapMode.READ_ONLY, 0,
+                    channel.size()), useDefaultLocale);
+        }
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The locales contained in the catalog
+     */
+    public Set<Locale> getLocales() {
+        return Collections.unmodifiableSet(localeIndexes.keySet());
+    }
+
+    /**
+     * The keys contained in the catalog
+     */
+    public Set<String> getKeys() {
+        return Collections.unmodifiableSet(keyIndexes.keySet());
+    }
+
+    /**
+     * Return the value of a key for exactly the given locale, without
+     * fallback. Returns null if there is no value.
+     */
+    public String getValue(Locale locale, String key) {
+        Integer localeIndex = localeIndexes.get(locale);
+        if (localeIndex == null)
+            return null;
+        Integer keyIndex = keyIndexes.get(key);
+        if (keyIndex == null)
+            return null;
+        return getValue(localeIndex, keyIndex);
+    }
+
+    private String getValue(int localeIndex, int keyIndex) {
+        int offset = buffer.getInt(offsetsStart + 4
+                * (localeIndex * keyCount + keyIndex));
+        if (offset < 0)
+            return null;
+        ByteBuffer in = buffer.duplicate();
+        in.position(valuesStart + offset);
+        return readString(in);
+    }
+
+    @Override
+    public ResourceBundle getResourceBundle(Locale locale) {
+        ResourceBundle result = bundles.get(locale);
+        if (result == null) {
+            result = bundles.computeIfAbsent(locale, this::createBundle);
+        }
+        return result;
+    }
+
+    private ResourceBundle createBundle(Locale locale) {
+        CatalogBundle result = null;
+        CatalogBundle last = null;
+        for (Locale candidate : CONTROL.getCandidateLocales("", locale)) {
+            if (!useDefaultLocale && Locale.ROOT.equals(candidate))
+                continue;
+            Integer index = localeIndexes.get(candidate);
+            if (index == null)
+                continue;
+            CatalogBundle bundle = new CatalogBundle(candidate, index);
+            if (last == null)
+                result = bundle;
+            else
+                last.setParentBundle(bundle);
+            last = bundle;
+        }
+        return result == null ? new CatalogBundle(locale, -1) : result;
+    }
+
+    private boolean hasValue(int localeIndex, int keyIndex) {
+        return buffer.getInt(offsetsStart + 4
+                * (localeIndex * keyCount + keyIndex)) >= 0;
+    }
+
+    private class CatalogBundle extends ResourceBundle {
+        private final Locale locale;
+        private final int localeIndex;
+        private volatile Set<String> keySet;
+
+        CatalogBundle(Locale locale, int localeIndex) {
+            this.locale = locale;
+            this.localeIndex = localeIndex;
+        }
+
+        void setParentBundle(CatalogBundle parent) {
+            setParent(parent);
+        }
+
+        @Override
+        public Locale getLocale() {
+            return locale;
+        }
+
+        @Override
+        protected Object handleGetObject(String key) {
+            if (localeIndex < 0)
+                return null;
+            Integer keyIndex = keyIndexes.get(key);
+            if (keyIndex == null)
+                return null;
+            return getValue(localeIndex, keyIndex);
+        }
+
+        /**
+         * Check the offsets directly instead of building the key sets
+         */
+        @Override
+        public boolean containsKey(String key) {
+            Integer keyIndex = keyIndexes.get(key);
+            if (keyIndex == null)
+                return false;
+            for (CatalogBundle bundle = this; bundle != null; bundle = (CatalogBundle) bundle.parent) {
+                if (bundle.localeIndex >= 0
+                        && hasValue(bundle.localeIndex, keyIndex))
+                    return true;
+            }
+            return false;
+        }
+
+        @Override
+        public Enumeration<String> getKeys() {
+            Set<String> keys = new LinkedHashSet<>();
+            for (CatalogBundle bundle = this; bundle != null; bundle = (CatalogBundle) bundle.parent) {
+                keys.addAll(bundle.handleKeySet());
+            }
+            return Collections.enumeration(keys);
+        }
+
+        @Override
+        protected Set<String> handleKeySet() {
+            Set<String> result = keySet;
+            if (result == null) {
+                result = new HashSet<>();
+                if (localeIndex >= 0)
+                    for (Map.Entry<String, Integer> entry : keyIndexes
+                            .entrySet()) {
+                        if (hasValue(localeIndex, entry.getValue()))
+                            result.add(entry.getKey());
+                    }
+                result = Collections.unmodifiableSet(result);
+                keySet = result;
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.github.ruediste1.i18n.lString;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeSet;
+
+/**
+ * Writes the translations of multiple locales to a binary catalog, which can be
+ * read using {@link TranslationCatalog}.
+ *
+ * <p>
+ * All integers are written big endian, all strings UTF-8 encoded. The layout
+ * is:
+ *
+ * <pre>
+ * magic, version, keyCount, localeCount  (ints)
+ * localeCount x locale tag              (int length, bytes)
+ * keyCount x key, sorted                (int length, bytes)
+ * localeCount x keyCount x value offset (int, -1 if missing)
+ * values                                (int length, bytes)
+ * </pre>
+ *
+ * Value offsets are relative to the start of the values. Equal values are
+ * stored only once.
+ */
+public class TranslationCatalogWriter {
+
+    static final int MAGIC = 0x4931384E;
+    static final int VERSION = 1;
+
+    private final Map<Locale, Map<String, String>> translations = new HashMap<>();
+
+    /**
+     * Add translations for a locale. Use {@link Locale#ROOT} for the default
+     * translations. Adding translations for the same locale multiple times
+     * merges the translations.
+     */
+    public TranslationCatalogWriter add(Locale locale,
+            Map<String, String> values) {
+        translations.computeIfAbsent(locale, x -> new HashMap<>()).putAll(
+                values);
+        return this;
+    }
+
+    /**
+     * Write the catalog to the given stream. The stream is not closed.
+     */
+    public void write(OutputStream out) throws IOException {
+        List<Locale> locales = new ArrayList<>(translations.keySet());
+        locales.sort((a, b) -> a.toLanguageTag().compareTo(b.toLanguageTag()));
+        TreeSet<String> keySet = new TreeSet<>();
+        translations.values().forEach(m -> keySet.addAll(m.keySet()));
+        List<String> keys = new ArrayList<>(keySet);
+
+        // collect the values
+        Map<String, Integer> valueOffsets = new HashMap<>();
+        List<byte[]> values = new ArrayList<>();
+        int[][] offsets = new int[locales.size()][keys.size()];
+        int nextOffset = 0;
+        for (int l = 0; l < locales.size(); l++) {
+            Map<String, String> localeValues = translations.get(locales.get(l));
+            for (int k = 0; k < keys.size(); k++) {
+                String value = localeValues.get(keys.get(k));
+                if (value == null) {
+                    offsets[l][k] = -1;
+                    continue;
+                }
+                Integer offset = valueOffsets.get(value);
+                if (offset == null) {
+                    offset = nextOffset;
+                    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    values.add(bytes);
+                    valueOffsets.put(value, offset);
+                    nextOffset += 4 + bytes.length;
+                }
+                offsets[l][k] = offset;
+            }
+        }
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(keys.size());
+        data.writeInt(locales.size());
+        for (Locale locale : locales) {
+            writeString(data, locale.toLanguageTag());
+        }
+        for (String key : keys) {
+            writeString(data, key);
+        }
+        for (int[] localeOffsets : offsets) {
+            for (int offset : localeOffsets) {
+                data.writeInt(offset);
+            }
+        }
+        for (byte[] value : values) {
+            data.writeInt(value.length);
+            data.write(value);
+        }
+        data.flush();
+    }
+
+    private void writeString(DataOutputStream data, String str)
+            throws IOException {
+        byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        data.writeInt(bytes.length);
+        data.write(bytes);
+    }
+
+    /**
+     * Create a writer containing the given translations
+     */
+    public static TranslationCatalogWriter of(
+            Map<Locale, ? extends Map<String, String>> translations) {
+        TranslationCatalogWriter writer = new TranslationCatalogWriter();
+        for (Entry<Locale, ? extends Map<String, String>> entry : translations
+                .entrySet()) {
+            writer.add(entry.getKey(), entry.getValue());
+        }
+        return writer;
+    }
+}
@@ -0,0 +1,167 @@
+package com.github.ruediste1.i18n.label;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Labels of the members of a class, read from the index written by the
+ * {@link LabelIndexProcessor}. Indexes whose signature hash does not match the
+ * fields and methods of the class are ignored.
+ */
+final class LabelIndex {
+
+    /**
+     * element id -> labels, each label being a (variant, label) pair. The
+     * label is null if the fallback is used. Only JDK types are used, as the
+     * values are stored on the indexed classes.
+     */
+    private static final ClassValue<Optional<Map<String, List<String[]>>>> indexes = new ClassValue<Optional<Map<String, List<String[]>>>>() {
+        @Override
+        protected Optional<Map<String, List<String[]>>> computeValue(Class<?> type) {
+            return load(type);
+        }
+    };
+
+    private LabelIndex() {
+    }
+
+    private static Optional<Map<String, List<String[]>>> load(Class<?> cls) {
+        ClassLoader loader = cls.getClassLoader();
+        if (loader == null)
+            return Optional.empty();
+        Properties properties = new Properties();
+        try (InputStream in = loader
+                .getResourceAsStream(LabelIndexProcessor.INDEX_LOCATION
+                        + cls.getName() + LabelIndexProcessor.INDEX_SUFFIX)) {
+            if (in == null)
+                return Optional.empty();
+            try (Reader reader = new InputStreamReader(in,
+                    StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error while reading label index of "
+                    + cls, e);
+        }
+
+        if (!signatureHash(cls).equals(
+                properties.getProperty(LabelIndexProcessor.SIGNATURE_HASH_KEY)))
+            // stale index, fall back to reflection
+            return Optional.empty();
+
+        Map<String, List<String[]>> labels = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (!key.endsWith(".count"))
+                continue;
+            String id = key.substring(0, key.length() - ".count".length());
+            int count = Integer.parseInt(properties.getProperty(key));
+            List<String[]> list = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                list.add(new String[] {
+                        properties.getProperty(id + "." + i + ".variant"),
+                        properties.getProperty(id + "." + i + ".label") });
+            }
+            labels.put(id, Collections.unmodifiableList(list));
+        }
+        return Optional.of(labels);
+    }
+
+    /**
+     * Pass the labels of the given element to the consumer, if the element is
+     * covered by an index. Labels using the fallback are passed through the
+     * fallback function.
+     * 
+     * @return true if the element is covered by an index, false if the
+     *         annotations have to be read using reflection
+     */
+    static boolean processLabels(AnnotatedElement element,
+            BiConsumer<String, String> consumer,
+            Function<String, String> fallbackFunction) {
+        Class<?> cls;
+        String id;
+        if (element instanceof Field) {
+            Field field = (Field) element;
+            cls = field.getDeclaringClass();
+            id = "field." + field.getName();
+        } else if (element instanceof Method) {
+            Method method = (Method) element;
+            if (method.isSynthetic())
+                return false;
+            cls = method.getDeclaringClass();
+            id = getId(method);
+        } else if (element instanceof Parameter) {
+            Parameter parameter = (Parameter) element;
+            if (!(parameter.getDeclaringExecutable() instanceof Method))
+                return false;
+            Method method = (Method) parameter.getDeclaringExecutable();
+            if (method.isSynthetic())
+                return false;
+            cls = method.getDeclaringClass();
+            id = getId(method) + "#"
+                    + Arrays.asList(method.getParameters()).indexOf(parameter);
+        } else
+            return false;
+
+        Optional<Map<String, List<String[]>>> index = indexes.get(cls);
+        if (!index.isPresent())
+            return false;
+        List<String[]> elementLabels = index.get().get(id);
+        if (elementLabels != null) {
+            for (String[] label : elementLabels) {
+                consumer.accept(label[0], label[1] != null ? label[1]
+                        : fallbackFunction.apply(label[0]));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compute the signature hash of a class like the
+     * {@link LabelIndexProcessor}, from the members visible in the source. The
+     * method descriptors are shared with the {@link LabelUtil}.
+     */
+    private static String signatureHash(Class<?> cls) {
+        List<String> memberIds = new ArrayList<>();
+        for (Field field : cls.getDeclaredFields()) {
+            if (!field.isSynthetic())
+                memberIds.add("field." + field.getName());
+        }
+        for (Entry<Method, String> entry : LabelUtil
+                .getDeclaredMethodDescriptors(cls).entrySet()) {
+            if (!entry.getKey().isSynthetic())
+                memberIds.add("method." + entry.getKey().getName()
+                        + entry.getValue());
+        }
+        return LabelIndexProcessor.signatureHash(memberIds);
+    }
+
+    private static String getId(Method method) {
+        return "method." + method.getName()
+                + LabelUtil.getMethodDescriptor(method);
+    }
+
+    /**
+     * Determine if an index is available for the given class
+     */
+    static boolean isIndexed(Class<?> cls) {
+        return indexes.get(cls).isPresent();
+    }
+}
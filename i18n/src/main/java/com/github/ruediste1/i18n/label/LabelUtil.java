@@ -8,6 +8,7 @@ import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
+import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -47,43 +48,159 @@ import com.github.ruediste1.i18n.lString.TranslatedString;
 import com.github.ruediste1.i18n.lString.TranslatedStringResolver;
 import com.google.common.base.CaseFormat;
 import com.google.common.base.Joiner;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.MultimapBuilder;
 import com.google.common.reflect.TypeToken;
 
+/**
+ * Provides the labels of types, properties, enum members, methods and method
+ * parameters.
+ * 
+ * <p>
+ * The labels are extracted from the annotations once per class and kept in
+ * caches backed by {@link ClassValue}s, thus lookups do not lock and the
+ * cached labels are dropped together with the classes. The class values only
+ * hold resource keys and fallbacks, the {@link TranslatedString}s are kept by
+ * this instance. Thus labelling a class of a parent class loader does not pin
+ * the resolver of this instance. The caches belong to this instance and are
+ * cleared if the additional labels extractor is changed or
+ * {@link #clearCache()} is called.
+ * 
+ * <p>
+ * If the {@link LabelIndexProcessor} ran when compiling a class, the labels of
+ * its members are read from the generated index instead of using reflection.
+ * See {@link #setLabelIndexEnabled(boolean)}.
+ */
 public class LabelUtil {
 
     private TranslatedStringResolver resolver;
     private Function<AnnotatedElement, Map<String, TranslatedString>> additionalLabelsExtractor = x -> Collections
             .emptyMap();
 
-    private static class TypeLabel {
-        String variant;
-        Class<?> definingClass;
-        String fallback;
+    /**
+     * Label caches, keyed by class. All cached maps are unmodifiable.
+     * 
+     * <p>
+     * The class values are stored on the labelled classes. Therefore they only
+     * contain JDK types, a label being represented by a (resource key,
+     * fallback) entry. Every variant map is a distinct instance, as the
+     * translated strings are cached by the identity of the variant maps.
+     */
+    private class Caches {
+        final ClassValue<Optional<Map<String, Entry<String, String>>>> typeLabels = classValue(
+                LabelUtil.this::createTypeLabels);
 
-        TypeLabel(String variant, Class<?> definingClass, String fallback) {
-            super();
-            this.variant = variant;
-            this.definingClass = definingClass;
-            this.fallback = fallback;
-        }
+        /**
+         * propertyName->variant->label
+         */
+        final ClassValue<Map<String, Map<String, Entry<String, String>>>> propertyLabels = classValue(
+                LabelUtil.this::createPropertyLabels);
+
+        /**
+         * member->variant->label
+         */
+        final ClassValue<Optional<Map<Enum<?>, Map<String, Entry<String, String>>>>> enumMemberLabels = classValue(
+                LabelUtil.this::createEnumMemberLabelMap);
 
-        TranslatedString toTranslatedString(TranslatedStringResolver resolver) {
-            return new TranslatedString(resolver, definingClass.getName() + (variant.isEmpty() ? "" : "." + variant),
-                    fallback);
+        /**
+         * method->variant->label, for the declared methods
+         */
+        final ClassValue<Map<Method, Map<String, Entry<String, String>>>> methodLabels = classValue(
+                LabelUtil.this::createDirectLabelsOfDeclaredMethods);
+
+        /**
+         * method->parameterName->variant->fallback, for the declared methods
+         */
+        final ClassValue<Map<Method, Map<String, Map<String, String>>>> methodParameterLabels = classValue(
+                LabelUtil.this::createMethodParameterLabels);
+
+        /**
+         * variant map->variant->translated string. The keys are weak and
+         * compared by identity, thus the translated strings are dropped
+         * together with the variant maps.
+         */
+        final Cache<Map<String, ?>, Map<String, TranslatedString>> translatedStrings = CacheBuilder.newBuilder()
+                .weakKeys().build();
+    }
+
+    private volatile Caches caches = new Caches();
+
+    private volatile boolean labelIndexEnabled = true;
+
+    /**
+     * Directly declared methods without property accessors and their unique
+     * name. Does not depend on the instance, thus shared between all instances.
+     */
+    private static final ClassValue<Map<Method, String>> directlyDeclaredMethods = classValue(
+            LabelUtil::createDirectlyDeclaredMethods);
+
+    /**
+     * Declared methods and their descriptors. Shared with the
+     * {@link LabelIndex}, which uses the descriptors to validate the indexes
+     * and to identify the methods.
+     */
+    private static final ClassValue<Map<Method, String>> declaredMethodDescriptors = classValue(
+            LabelUtil::createDeclaredMethodDescriptors);
+
+    private static <T> ClassValue<T> classValue(Function<Class<?>, T> function) {
+        return new ClassValue<T>() {
+            @Override
+            protected T computeValue(Class<?> type) {
+                return function.apply(type);
+            }
+        };
+    }
+
+    /**
+     * Drop all cached labels. They are extracted again when used the next
+     * time.
+     */
+    public void clearCache() {
+        caches = new Caches();
+    }
+
+    /**
+     * Create a label as stored in the {@link Caches}
+     */
+    private static Entry<String, String> label(String key, String fallback) {
+        return new SimpleImmutableEntry<>(key, fallback);
+    }
+
+    /**
+     * Get the translated strings of a variant map of the {@link Caches}
+     */
+    private Map<String, TranslatedString> translate(Map<String, Entry<String, String>> labels) {
+        Cache<Map<String, ?>, Map<String, TranslatedString>> translatedStrings = caches.translatedStrings;
+        Map<String, TranslatedString> result = translatedStrings.getIfPresent(labels);
+        if (result == null) {
+            Map<String, TranslatedString> map = new HashMap<>();
+            labels.forEach((variant, label) -> map.put(variant,
+                    TranslatedString.intern(resolver, label.getKey(), label.getValue())));
+            result = Collections.unmodifiableMap(map);
+            translatedStrings.put(labels, result);
         }
+        return result;
     }
 
-    private Map<String, TypeLabel> getTypeLabels(Class<?> cls) {
+    private Map<String, TranslatedString> getTypeLabels(Class<?> cls) {
         return tryGetTypeLabels(cls).orElseThrow(() -> new RuntimeException(
                 "Missing @Label or @Labeled annotation on " + cls + " and all it's ancestors"));
 
     }
 
-    private Optional<Map<String, TypeLabel>> tryGetTypeLabels(Class<?> cls) {
-        Map<String, TypeLabel> result = getTypeLabelsNoInherit(cls);
+    private Optional<Map<String, TranslatedString>> tryGetTypeLabels(Class<?> cls) {
+        return caches.typeLabels.get(cls).map(this::translate);
+    }
+
+    private Optional<Map<String, Entry<String, String>>> createTypeLabels(Class<?> cls) {
+        return findTypeLabels(cls).map(Collections::unmodifiableMap);
+    }
+
+    private Optional<Map<String, Entry<String, String>>> findTypeLabels(Class<?> cls) {
+        Map<String, Entry<String, String>> result = getTypeLabelsNoInherit(cls);
         if (!result.isEmpty())
             return Optional.of(result);
         for (Class<?> superClass : Iterables.skip(JavaC3.allSuperclasses(cls), 1)) {
@@ -94,11 +211,11 @@ public class LabelUtil {
         return Optional.empty();
     }
 
-    private Map<String, TypeLabel> getTypeLabelsNoInherit(Class<?> cls) {
-        Map<String, TypeLabel> labels = new HashMap<>();
+    private Map<String, Entry<String, String>> getTypeLabelsNoInherit(Class<?> cls) {
+        Map<String, Entry<String, String>> labels = new HashMap<>();
 
         // add variants from label annotations
-        processLabelAnnotations(cls, (variant, label) -> labels.put(variant, new TypeLabel(variant, cls, label)),
+        processLabelAnnotations(cls, (variant, label) -> labels.put(variant, label(getTypeKey(cls, variant), label)),
                 v -> calculateTypeFallbackNew(cls, v));
 
         // add variants from Labeled
@@ -107,13 +224,17 @@ public class LabelUtil {
             if (labeled != null) {
                 Stream.concat(Stream.of(""), Arrays.stream(labeled.variants()))
                         .forEach(variant -> labels.computeIfAbsent(variant,
-                                x -> new TypeLabel(variant, cls, calculateTypeFallbackNew(cls, variant))));
+                                x -> label(getTypeKey(cls, variant), calculateTypeFallbackNew(cls, variant))));
             }
         }
 
         return labels;
     }
 
+    private static String getTypeKey(Class<?> cls, String variant) {
+        return cls.getName() + (variant.isEmpty() ? "" : "." + variant);
+    }
+
     /**
      * Process annotations having the {@link LabelVariant} meta annotation.
      * 
@@ -134,22 +255,26 @@ public class LabelUtil {
      * get the labels of a type. The returned map is
      * propertyName->variant->label
      */
-    private Map<String, Map<String, TranslatedString>> getPropertyLabels(Class<?> type) {
-        Map<String, Map<String, TranslatedString>> result = new HashMap<>();
+    private Map<String, Map<String, Entry<String, String>>> getPropertyLabels(Class<?> type) {
+        return caches.propertyLabels.get(type);
+    }
+
+    private Map<String, Map<String, Entry<String, String>>> createPropertyLabels(Class<?> type) {
+        Map<String, Map<String, Entry<String, String>>> result = new HashMap<>();
 
         for (PropertyDeclaration property : PropertyUtil.getPropertyIntroductionMap(type).values()) {
-            Map<String, TranslatedString> variantMap = new HashMap<>();
+            Map<String, Entry<String, String>> variantMap = new HashMap<>();
             getPropertyLabels(
                     property)
                             .forEach(
                                     (variant, label) -> variantMap.put(variant,
-                                            new TranslatedString(resolver, property.getDeclaringType().getName() + "."
+                                            label(property.getDeclaringType().getName() + "."
                                                     + property.getName() + (variant.isEmpty() ? "" : "." + variant),
                                             label)));
             if (!variantMap.isEmpty())
-                result.put(property.getName(), variantMap);
+                result.put(property.getName(), Collections.unmodifiableMap(variantMap));
         }
-        return result;
+        return Collections.unmodifiableMap(result);
     }
 
     @Inject
@@ -177,11 +302,11 @@ public class LabelUtil {
 
         @Override
         public TranslatedString label() {
-            Map<String, Map<String, TranslatedString>> labels = getPropertyLabels(type);
-            Map<String, TranslatedString> variantMap = labels.get(propertyName);
+            Map<String, Map<String, Entry<String, String>>> labels = getPropertyLabels(type);
+            Map<String, Entry<String, String>> variantMap = labels.get(propertyName);
             if (variantMap == null)
                 throw new RuntimeException("No labels defined for property " + propertyName + " on " + type);
-            TranslatedString label = variantMap.get(variant);
+            TranslatedString label = translate(variantMap).get(variant);
             if (label == null)
                 throw new RuntimeException("Variant " + variant + " not defined for property " + propertyName + " on "
                         + type + ".\nAvailable variants: " + Joiner.on(",").join(variantMap.keySet()));
@@ -191,8 +316,8 @@ public class LabelUtil {
 
         @Override
         public Optional<TranslatedString> tryLabel() {
-            Map<String, Map<String, TranslatedString>> labels = getPropertyLabels(type);
-            return Optional.ofNullable(labels.get(propertyName)).map(x -> x.get(variant));
+            Map<String, Map<String, Entry<String, String>>> labels = getPropertyLabels(type);
+            return Optional.ofNullable(labels.get(propertyName)).map(x -> translate(x).get(variant));
         }
 
         public PropertyApi variant(String variant) {
@@ -235,12 +360,13 @@ public class LabelUtil {
         @Override
         public Optional<TranslatedString> tryLabel() {
             return tryGetEnumMemberLabelMap(member.getDeclaringClass()).map(x -> x.get(member))
-                    .flatMap(x -> Optional.ofNullable(x.get(variant)));
+                    .flatMap(x -> Optional.ofNullable(translate(x).get(variant)));
         }
 
         @Override
         public TranslatedString label() {
-            TranslatedString result = getEnumMemberLabelMap(member.getDeclaringClass()).get(member).get(variant);
+            TranslatedString result = translate(getEnumMemberLabelMap(member.getDeclaringClass()).get(member))
+                    .get(variant);
             if (result == null) {
                 throw new RuntimeException("Variant <" + variant + "> is not defined on " + member.getDeclaringClass());
             }
@@ -286,19 +412,32 @@ public class LabelUtil {
         return new EnumLabelsApi(enumClass);
     }
 
-    private <T extends Enum<T>> Map<T, Map<String, TranslatedString>> getEnumMemberLabelMap(Class<T> enumClass) {
+    private <T extends Enum<T>> Map<T, Map<String, Entry<String, String>>> getEnumMemberLabelMap(Class<T> enumClass) {
         return tryGetEnumMemberLabelMap(enumClass)
                 .orElseThrow(() -> new RuntimeException("Missing @MembersLabeled annotation for " + enumClass));
     }
 
-    private <T extends Enum<T>> Optional<Map<T, Map<String, TranslatedString>>> tryGetEnumMemberLabelMap(
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private <T extends Enum<T>> Optional<Map<T, Map<String, Entry<String, String>>>> tryGetEnumMemberLabelMap(
+            Class<T> enumClass) {
+        return (Optional) caches.enumMemberLabels.get(enumClass);
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private Optional<Map<Enum<?>, Map<String, Entry<String, String>>>> createEnumMemberLabelMap(Class<?> cls) {
+        if (!cls.isEnum())
+            return Optional.empty();
+        return (Optional) createTypedEnumMemberLabelMap((Class) cls);
+    }
+
+    private <T extends Enum<T>> Optional<Map<T, Map<String, Entry<String, String>>>> createTypedEnumMemberLabelMap(
             Class<T> enumClass) {
 
         Optional<String[]> variantsArray = enum_(enumClass).tryVariants();
         if (!variantsArray.isPresent())
             return Optional.empty();
 
-        Map<T, Map<String, TranslatedString>> result = new HashMap<>();
+        Map<T, Map<String, Entry<String, String>>> result = new HashMap<>();
         HashSet<String> variants = new HashSet<>(Arrays.asList(variantsArray.get()));
         for (T member : enumClass.getEnumConstants()) {
 
@@ -324,22 +463,21 @@ public class LabelUtil {
                     throw new RuntimeException("Variant " + definedVariant + " defined on " + enumField.getName()
                             + " of " + enumClass + " but not declared in the @MemberLabeled annotation");
             }
-            Map<String, TranslatedString> labelMap = new HashMap<>();
-            result.put(member, labelMap);
+            Map<String, Entry<String, String>> labelMap = new HashMap<>();
             for (String variant : variants) {
                 String key = enumClass.getName() + "." + enumField.getName() + (variant.isEmpty() ? "" : "." + variant);
                 String label = definedVariantMap.get(variant);
                 if (label != null) {
-                    labelMap.put(variant, new TranslatedString(resolver, key, label));
+                    labelMap.put(variant, label(key, label));
                 } else {
-                    labelMap.put(variant,
-                            new TranslatedString(resolver, key, calculateEnumMemberFallbackNew(member, variant)));
+                    labelMap.put(variant, label(key, calculateEnumMemberFallbackNew(member, variant)));
 
                 }
             }
+            result.put(member, Collections.unmodifiableMap(labelMap));
 
         }
-        return Optional.of(result);
+        return Optional.of(Collections.unmodifiableMap(result));
 
     }
 
@@ -408,7 +546,7 @@ public class LabelUtil {
 
         @Override
         public Optional<TranslatedString> tryLabel() {
-            return tryGetTypeLabels(type).map(x -> x.get(variant)).map(x -> x.toTranslatedString(resolver));
+            return tryGetTypeLabels(type).map(x -> x.get(variant));
         }
 
         /**
@@ -426,9 +564,7 @@ public class LabelUtil {
     public Map<String, TranslatedString> typeLabels(Class<?> type) {
         HashMap<String, TranslatedString> result = new HashMap<>();
 
-        tryGetTypeLabels(type).ifPresent(map -> map.entrySet().forEach(entry -> {
-            result.put(entry.getKey(), entry.getValue().toTranslatedString(resolver));
-        }));
+        tryGetTypeLabels(type).ifPresent(result::putAll);
         return result;
     }
 
@@ -523,6 +659,8 @@ public class LabelUtil {
             Function<String, String> fallbackFunction) {
         if (annotated == null)
             return;
+        if (labelIndexEnabled && LabelIndex.processLabels(annotated, consumer, fallbackFunction))
+            return;
         HashSet<String> seenVariants = new HashSet<>();
 
         for (Label label : annotated.getAnnotationsByType(Label.class)) {
@@ -582,7 +720,7 @@ public class LabelUtil {
 
     public <T extends Enum<T>> Collection<TranslatedString> getEnumMemberLabelsOf(Class<T> type) {
         return tryGetEnumMemberLabelMap(type)
-                .map(map -> map.values().stream().flatMap(x -> x.values().stream()).collect(toList()))
+                .map(map -> map.values().stream().flatMap(x -> translate(x).values().stream()).collect(toList()))
                 .orElseGet(() -> Collections.emptyList());
     }
 
@@ -591,22 +729,21 @@ public class LabelUtil {
         for (Entry<Method, String> methodEntry : getDirectlyDeclaredMethods(cls).entrySet()) {
             for (Entry<String, Map<String, String>> parameterEntry : getMethodParameterLabels(methodEntry.getKey())
                     .entrySet()) {
-                for (Entry<String, String> variantEntry : parameterEntry.getValue().entrySet()) {
-                    result.add(createMethodParameterLabel(methodEntry.getKey(), methodEntry.getValue(),
-                            parameterEntry.getKey(), variantEntry.getKey(), variantEntry.getValue()));
-                }
+                result.addAll(translateMethodParameterLabels(methodEntry.getKey(), methodEntry.getValue(),
+                        parameterEntry.getKey(), parameterEntry.getValue()).values());
             }
         }
         return result;
     }
 
     public Collection<TranslatedString> getPropertyLabelsOf(Class<?> type) {
-        return getPropertyLabels(type).values().stream().flatMap(map -> map.values().stream()).collect(toList());
+        return getPropertyLabels(type).values().stream().flatMap(map -> translate(map).values().stream())
+                .collect(toList());
     }
 
     public Collection<TranslatedString> getTypeLabelsOf(Class<?> type) {
         return tryGetTypeLabels(type)
-                .map(map -> map.values().stream().map(x -> x.toTranslatedString(resolver)).collect(toList()))
+                .map(map -> (Collection<TranslatedString>) new ArrayList<>(map.values()))
                 .orElse(Collections.emptyList());
     }
 
@@ -631,8 +768,8 @@ public class LabelUtil {
      * all method labels.
      */
     public Collection<TranslatedString> getDeclaredMethodLabels(Class<?> cls) {
-        return getDirectLabelsOfDeclaredMethods(cls).values().stream().flatMap(m -> m.values().stream())
-                .collect(toList());
+        return getDirectLabelsOfDeclaredMethods(cls).keySet().stream()
+                .flatMap(m -> getDirectLabelsOfDeclaredMethod(m).values().stream()).collect(toList());
     }
 
     public class MethodApi implements LabelApi {
@@ -658,7 +795,7 @@ public class LabelUtil {
         @Override
         public Optional<TranslatedString> tryLabel() {
             for (Method m : MethodUtil.getDeclarations(method)) {
-                Map<String, TranslatedString> labels = getDirectLabelsOfDeclaredMethods(m.getDeclaringClass()).get(m);
+                Map<String, TranslatedString> labels = getDirectLabelsOfDeclaredMethod(m);
                 if (labels != null && !labels.isEmpty()) {
                     return Optional.ofNullable(labels.get(variant));
                 }
@@ -675,6 +812,19 @@ public class LabelUtil {
      * @return parameterName->variant->label
      */
     private Map<String, Map<String, String>> getMethodParameterLabels(Method m) {
+        Map<String, Map<String, String>> result = caches.methodParameterLabels.get(m.getDeclaringClass()).get(m);
+        return result != null ? result : createMethodParameterLabels(m);
+    }
+
+    private Map<Method, Map<String, Map<String, String>>> createMethodParameterLabels(Class<?> cls) {
+        Map<Method, Map<String, Map<String, String>>> result = new HashMap<>();
+        for (Method m : cls.getDeclaredMethods()) {
+            result.put(m, createMethodParameterLabels(m));
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    private Map<String, Map<String, String>> createMethodParameterLabels(Method m) {
         Map<String, Map<String, String>> result = new HashMap<>();
 
         // process label annotations
@@ -698,7 +848,8 @@ public class LabelUtil {
             }
         }
 
-        return result;
+        result.replaceAll((parameter, map) -> Collections.unmodifiableMap(map));
+        return Collections.unmodifiableMap(result);
     }
 
     public class MethodParameterApi implements LabelApi {
@@ -721,12 +872,11 @@ public class LabelUtil {
 
         @Override
         public Optional<TranslatedString> tryLabel() {
-            return Optional.ofNullable(getMethodParameterLabels(method).get(parameter))
-                    .flatMap(map -> Optional.ofNullable(map.get(variant))).map(fallback -> {
-                        Map<Method, String> methodMap = getDirectlyDeclaredMethods(method.getDeclaringClass());
-
-                        return createMethodParameterLabel(method, methodMap.get(method), parameter, variant, fallback);
-                    });
+            return Optional.ofNullable(getMethodParameterLabels(method).get(parameter)).flatMap(map -> {
+                Map<Method, String> methodMap = getDirectlyDeclaredMethods(method.getDeclaringClass());
+                return Optional.ofNullable(
+                        translateMethodParameterLabels(method, methodMap.get(method), parameter, map).get(variant));
+            });
         }
 
         public MethodParameterApi variant(String variant) {
@@ -738,9 +888,26 @@ public class LabelUtil {
         return new MethodParameterApi((Method) parameter.getDeclaringExecutable(), parameter.getName(), "");
     }
 
+    /**
+     * Get the translated strings of the variant map of a method parameter
+     */
+    private Map<String, TranslatedString> translateMethodParameterLabels(Method method, String uniqueMethodName,
+            String parameter, Map<String, String> fallbacks) {
+        Cache<Map<String, ?>, Map<String, TranslatedString>> translatedStrings = caches.translatedStrings;
+        Map<String, TranslatedString> result = translatedStrings.getIfPresent(fallbacks);
+        if (result == null) {
+            Map<String, TranslatedString> map = new HashMap<>();
+            fallbacks.forEach((variant, fallback) -> map.put(variant,
+                    createMethodParameterLabel(method, uniqueMethodName, parameter, variant, fallback)));
+            result = Collections.unmodifiableMap(map);
+            translatedStrings.put(fallbacks, result);
+        }
+        return result;
+    }
+
     protected TranslatedString createMethodParameterLabel(Method method, String uniqueMethodName, String parameter,
             String variant, String fallback) {
-        return new TranslatedString(resolver, method.getDeclaringClass().getName() + "." + uniqueMethodName + "."
+        return TranslatedString.intern(resolver, method.getDeclaringClass().getName() + "." + uniqueMethodName + "."
                 + parameter + ("".equals(variant) ? "" : "." + variant), fallback);
     }
 
@@ -765,31 +932,48 @@ public class LabelUtil {
      * 
      * @return method->variant->label
      */
-    private Map<Method, Map<String, TranslatedString>> getDirectLabelsOfDeclaredMethods(Class<?> cls) {
-        // name->signature->method
-        Map<String, Map<String, Method>> methods = new HashMap<>();
-        for (Method m : cls.getDeclaredMethods()) {
-            // skip property accessors
-            if (PropertyUtil.getAccessor(m) != null)
-                continue;
-            // add method to map
-            String signature = Type.getMethodDescriptor(m);
-            methods.computeIfAbsent(m.getName(), x -> new TreeMap<>()).put(signature, m);
+    private Map<Method, Map<String, Entry<String, String>>> getDirectLabelsOfDeclaredMethods(Class<?> cls) {
+        return caches.methodLabels.get(cls);
+    }
+
+    /**
+     * Get the labels of a declared method, including the additional labels.
+     * Returns null if the method is not a directly declared method.
+     * 
+     * @return variant->label
+     */
+    private Map<String, TranslatedString> getDirectLabelsOfDeclaredMethod(Method method) {
+        Map<String, Entry<String, String>> labels = getDirectLabelsOfDeclaredMethods(method.getDeclaringClass())
+                .get(method);
+        if (labels == null)
+            return null;
+        Cache<Map<String, ?>, Map<String, TranslatedString>> translatedStrings = caches.translatedStrings;
+        Map<String, TranslatedString> result = translatedStrings.getIfPresent(labels);
+        if (result == null) {
+            Map<String, TranslatedString> map = new HashMap<>(additionalLabelsExtractor.apply(method));
+            labels.forEach((variant, label) -> map.put(variant,
+                    TranslatedString.intern(resolver, label.getKey(), label.getValue())));
+            result = Collections.unmodifiableMap(map);
+            translatedStrings.put(labels, result);
         }
+        return result;
+    }
 
+    private Map<Method, Map<String, Entry<String, String>>> createDirectLabelsOfDeclaredMethods(Class<?> cls) {
         // method->variant->label
-        Map<Method, Map<String, TranslatedString>> result = new HashMap<>();
+        Map<Method, Map<String, Entry<String, String>>> result = new HashMap<>();
 
-        // generate the translated strings, making duplicate method names unique
-        // using a count
+        // generate the labels, making duplicate method names unique using a
+        // count
         for (Entry<Method, String> entry : getDirectlyDeclaredMethods(cls).entrySet()) {
             Method m = entry.getKey();
-            result.put(m, new HashMap<>(additionalLabelsExtractor.apply(m)));
+            result.put(m, new HashMap<>());
             processDirectMethodLabels(m, (variant, label) -> result.get(m).put(variant,
-                    new TranslatedString(resolver, getMethodKey(m, entry.getValue(), variant), label)));
+                    label(getMethodKey(m, entry.getValue(), variant), label)));
         }
 
-        return result;
+        result.replaceAll((method, map) -> Collections.unmodifiableMap(map));
+        return Collections.unmodifiableMap(result);
     }
 
     /**
@@ -797,15 +981,19 @@ public class LabelUtil {
      * unique name.
      */
     private static Map<Method, String> getDirectlyDeclaredMethods(Class<?> cls) {
+        return directlyDeclaredMethods.get(cls);
+    }
+
+    private static Map<Method, String> createDirectlyDeclaredMethods(Class<?> cls) {
         // name->signature->method
         Map<String, Map<String, Method>> methods = new HashMap<>();
-        for (Method m : cls.getDeclaredMethods()) {
+        for (Entry<Method, String> entry : getDeclaredMethodDescriptors(cls).entrySet()) {
+            Method m = entry.getKey();
             // skip property accessors
             if (PropertyUtil.getAccessor(m) != null)
                 continue;
             // add method to map
-            String signature = Type.getMethodDescriptor(m);
-            methods.computeIfAbsent(m.getName(), x -> new TreeMap<>()).put(signature, m);
+            methods.computeIfAbsent(m.getName(), x -> new TreeMap<>()).put(entry.getValue(), m);
         }
 
         // method->variant->label
@@ -820,7 +1008,30 @@ public class LabelUtil {
                 result.put(m, name);
             }
         }
-        return result;
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Get all declared methods and their descriptors
+     */
+    static Map<Method, String> getDeclaredMethodDescriptors(Class<?> cls) {
+        return declaredMethodDescriptors.get(cls);
+    }
+
+    /**
+     * Get the descriptor of a method
+     */
+    static String getMethodDescriptor(Method method) {
+        String descriptor = getDeclaredMethodDescriptors(method.getDeclaringClass()).get(method);
+        return descriptor != null ? descriptor : Type.getMethodDescriptor(method);
+    }
+
+    private static Map<Method, String> createDeclaredMethodDescriptors(Class<?> cls) {
+        Map<Method, String> result = new HashMap<>();
+        for (Method m : cls.getDeclaredMethods()) {
+            result.put(m, Type.getMethodDescriptor(m));
+        }
+        return Collections.unmodifiableMap(result);
     }
 
     /**
@@ -873,6 +1084,21 @@ public class LabelUtil {
 
     }
 
+    /**
+     * If enabled (the default), the labels of fields, methods and method
+     * parameters are read from the index written by the
+     * {@link LabelIndexProcessor} if one is available for the declaring
+     * class. Otherwise the annotations are always read using reflection.
+     */
+    public void setLabelIndexEnabled(boolean labelIndexEnabled) {
+        this.labelIndexEnabled = labelIndexEnabled;
+        clearCache();
+    }
+
+    public boolean isLabelIndexEnabled() {
+        return labelIndexEnabled;
+    }
+
     public Function<AnnotatedElement, Map<String, TranslatedString>> getAdditionalLabelsExtractor() {
         return additionalLabelsExtractor;
     }
@@ -880,6 +1106,7 @@ public class LabelUtil {
     public void setAdditionalLabelsExtractor(
             Function<AnnotatedElement, Map<String, TranslatedString>> additionalLabelsExtractor) {
         this.additionalLabelsExtractor = additionalLabelsExtractor;
+        clearCache();
     }
 
 }
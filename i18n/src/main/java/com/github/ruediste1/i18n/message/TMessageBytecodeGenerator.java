@@ -0,0 +1,430 @@
+package com.github.ruediste1.i18n.message;
+
+import static org.objectweb.asm.Opcodes.AALOAD;
+import static org.objectweb.asm.Opcodes.AASTORE;
+import static org.objectweb.asm.Opcodes.ACC_FINAL;
+import static org.objectweb.asm.Opcodes.ACC_PRIVATE;
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.ACC_SUPER;
+import static org.objectweb.asm.Opcodes.ACC_SYNTHETIC;
+import static org.objectweb.asm.Opcodes.ALOAD;
+import static org.objectweb.asm.Opcodes.ANEWARRAY;
+import static org.objectweb.asm.Opcodes.ARETURN;
+import static org.objectweb.asm.Opcodes.ATHROW;
+import static org.objectweb.asm.Opcodes.CHECKCAST;
+import static org.objectweb.asm.Opcodes.DUP;
+import static org.objectweb.asm.Opcodes.GETFIELD;
+import static org.objectweb.asm.Opcodes.ILOAD;
+import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
+import static org.objectweb.asm.Opcodes.INVOKESTATIC;
+import static org.objectweb.asm.Opcodes.NEW;
+import static org.objectweb.asm.Opcodes.PUTFIELD;
+import static org.objectweb.asm.Opcodes.RETURN;
+import static org.objectweb.asm.Opcodes.V1_8;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import com.github.ruediste1.i18n.lString.LString;
+import com.github.ruediste1.i18n.lString.PatternString;
+import com.github.ruediste1.i18n.lString.PatternStringResolver;
+import com.github.ruediste1.i18n.lString.TranslatedString;
+import com.github.ruediste1.i18n.lString.TranslatedStringResolver;
+import com.github.ruediste1.i18n.messageFormat.ArgumentSlots;
+import com.github.ruediste1.i18n.messageFormat.MessageArguments;
+
+/**
+ * Generates implementations of message interfaces, used by the
+ * {@link TMessageUtil}.
+ *
+ * <p>
+ * All per method metadata (resource key, fallback, parameter names) is
+ * computed once while generating. Methods without parameters return a
+ * {@link TranslatedString} or {@link PatternString} created up front, methods
+ * with parameters directly construct a {@link PatternString}. Its
+ * {@link MessageArguments} consist of the arguments of the call and a table
+ * of the parameter names shared by all calls. Methods with an invalid
+ * signature throw the same exception as the proxy based implementation when
+ * called.
+ *
+ * <p>
+ * Each generated class is defined in its own class loader, allowing it to be
+ * unloaded together with the {@link TMessageUtil} it belongs to.
+ */
+public final class TMessageBytecodeGenerator {
+
+    private static final AtomicLong classCounter = new AtomicLong();
+
+    private static final String BASE = Type
+            .getInternalName(GeneratedMessages.class);
+    private static final String P_RESOLVER = Type
+            .getDescriptor(PatternStringResolver.class);
+    private static final String P_STRING = Type
+            .getInternalName(PatternString.class);
+    private static final String SLOTS_DESC = Type
+            .getDescriptor(ArgumentSlots.class);
+    private static final String ARGUMENTS = Type
+            .getInternalName(MessageArguments.class);
+    private static final String EXCEPTION = Type
+            .getInternalName(RuntimeException.class);
+
+    private TMessageBytecodeGenerator() {
+    }
+
+    /**
+     * Base class of the generated message interface implementations
+     */
+    public static abstract class GeneratedMessages {
+        protected final PatternStringResolver pStringResolver;
+
+        protected GeneratedMessages(PatternStringResolver pStringResolver) {
+            this.pStringResolver = pStringResolver;
+        }
+    }
+
+    private static class GeneratedClassLoader extends ClassLoader {
+        GeneratedClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        /**
+         * Classes not visible from the interface are loaded from the loader
+         * of this library
+         */
+        @Override
+        protected Class<?> findClass(String name)
+                throws ClassNotFoundException {
+            return TMessageBytecodeGenerator.class.getClassLoader().loadClass(
+                    name);
+        }
+
+        Class<?> define(String name, byte[] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+
+    /**
+     * Determine if an implementation of the given interface can be generated.
+     * Non public interfaces are only accessible from within their own package
+     * and class loader.
+     */
+    static boolean canGenerate(Class<?> messageInterface) {
+        for (Class<?> cls = messageInterface; cls != null; cls = cls
+                .getEnclosingClass()) {
+            if (!Modifier.isPublic(cls.getModifiers()))
+                return false;
+        }
+        return messageInterface.getClassLoader() != null;
+    }
+
+    private enum Kind {
+        /**
+         * return a precomputed {@link TranslatedString}
+         */
+        T_STRING,
+        /**
+         * return a precomputed {@link PatternString} without arguments
+         */
+        P_STRING,
+        /**
+         * construct a {@link PatternString} from the arguments
+         */
+        P_STRING_ARGS,
+        /**
+         * throw an exception
+         */
+        ERROR
+    }
+
+    private static class MethodInfo {
+        final Method method;
+        final Kind kind;
+        /**
+         * Value of the field of the method, depending on the kind
+         */
+        final Object constant;
+
+        /**
+         * Parameter names of {@link Kind#P_STRING_ARGS} methods
+         */
+        final ArgumentSlots names;
+
+        MethodInfo(Method method, Kind kind, Object constant) {
+            this.method = method;
+            this.kind = kind;
+            this.constant = constant;
+            names = kind == Kind.P_STRING_ARGS ? parameterNames(method) : null;
+        }
+    }
+
+    /**
+     * Create an instance of an implementation of the given message interface,
+     * using the given resolvers.
+     *
+     * @throws RuntimeException
+     *             if the implementation cannot be generated
+     */
+    static <T> T create(Class<T> messageInterface,
+            PatternStringResolver pStringResolver,
+            TranslatedStringResolver tStringResolver) {
+        List<MethodInfo> infos = new ArrayList<>();
+        Set<String> signatures = new HashSet<>();
+        for (Method method : messageInterface.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers()))
+                continue;
+            // methods inherited from multiple interfaces are implemented once
+            if (!signatures.add(method.getName()
+                    + Type.getMethodDescriptor(method)))
+                continue;
+            infos.add(createInfo(method, pStringResolver, tStringResolver));
+        }
+
+        // use a separate package, the generated classes are defined in their
+        // own class loaders anyways
+        String name = TMessageBytecodeGenerator.class.getPackage().getName()
+                + ".generated.Messages" + classCounter.incrementAndGet();
+        byte[] bytes = generate(name.replace('.', '/'), messageInterface,
+                infos);
+        Object[] constants = new Object[infos.size()];
+        ArgumentSlots[] names = new ArgumentSlots[infos.size()];
+        for (int i = 0; i < constants.length; i++) {
+            constants[i] = infos.get(i).constant;
+            names[i] = infos.get(i).names;
+        }
+        try {
+            return messageInterface.cast(new GeneratedClassLoader(
+                    messageInterface.getClassLoader()).define(name, bytes)
+                    .getConstructor(PatternStringResolver.class,
+                            Object[].class, ArgumentSlots[].class)
+                    .newInstance(pStringResolver, constants, names));
+        } catch (Exception | LinkageError e) {
+            throw new RuntimeException(
+                    "Error while generating implementation of "
+                            + messageInterface, e);
+        }
+    }
+
+    /**
+     * Classify the method the same way {@link TMessageUtil} does when invoked
+     * through a proxy
+     */
+    private static MethodInfo createInfo(Method method,
+            PatternStringResolver pStringResolver,
+            TranslatedStringResolver tStringResolver) {
+        TranslatedString tString = TranslatedString.intern(tStringResolver,
+                TMessagePatternExtractionUtil.getMethodKey(method),
+                TMessagePatternExtractionUtil.getMessageFallback(method));
+        Class<?> returnType = method.getReturnType();
+        if (method.getParameterCount() == 0) {
+            if (returnType.isAssignableFrom(TranslatedString.class))
+                return new MethodInfo(method, Kind.T_STRING, tString);
+            if (returnType.isAssignableFrom(PatternString.class))
+                return new MethodInfo(method, Kind.P_STRING,
+                        new PatternString(pStringResolver, tString,
+                                Collections.emptyMap()));
+            return new MethodInfo(
+                    method,
+                    Kind.ERROR,
+                    "The return type of "
+                            + method
+                            + " must be assigneable from LString, TranslatedString or PatternString");
+        } else {
+            if (returnType.isAssignableFrom(PatternString.class))
+                return new MethodInfo(method, Kind.P_STRING_ARGS, tString);
+            return new MethodInfo(method, Kind.ERROR, "The return type of "
+                    + method
+                    + " must be assigneable from LString or PatternString");
+        }
+    }
+
+    /**
+     * Create the table of the parameter names of the given method
+     */
+    static ArgumentSlots parameterNames(Method method) {
+        List<String> names = new ArrayList<>();
+        for (Parameter parameter : method.getParameters()) {
+            names.add(parameter.getName());
+        }
+        return ArgumentSlots.of(names);
+    }
+
+    private static String fieldDescriptor(Kind kind) {
+        switch (kind) {
+        case T_STRING:
+        case P_STRING_ARGS:
+            return Type.getDescriptor(TranslatedString.class);
+        case P_STRING:
+            return Type.getDescriptor(PatternString.class);
+        case ERROR:
+            return Type.getDescriptor(String.class);
+        default:
+            throw new IllegalStateException("Unexpected kind " + kind);
+        }
+    }
+
+    private static byte[] generate(String internalName,
+            Class<?> messageInterface, List<MethodInfo> infos) {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(V1_8, ACC_PUBLIC | ACC_FINAL | ACC_SUPER | ACC_SYNTHETIC,
+                internalName, null, BASE,
+                new String[] { Type.getInternalName(messageInterface) });
+        for (int i = 0; i < infos.size(); i++) {
+            cw.visitField(ACC_PRIVATE | ACC_FINAL, "m" + i,
+                    fieldDescriptor(infos.get(i).kind), null, null).visitEnd();
+            if (infos.get(i).names != null)
+                cw.visitField(ACC_PRIVATE | ACC_FINAL, "n" + i, SLOTS_DESC,
+                        null, null).visitEnd();
+        }
+
+        // constructor
+        {
+            MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "("
+                    + P_RESOLVER + "[Ljava/lang/Object;[" + SLOTS_DESC
+                    + ")V", null, null);
+            mv.visitCode();
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitMethodInsn(INVOKESPECIAL, BASE, "<init>", "(" + P_RESOLVER
+                    + ")V", false);
+            for (int i = 0; i < infos.size(); i++) {
+                String desc = fieldDescriptor(infos.get(i).kind);
+                mv.visitVarInsn(ALOAD, 0);
+                mv.visitVarInsn(ALOAD, 2);
+                mv.visitLdcInsn(i);
+                mv.visitInsn(AALOAD);
+                mv.visitTypeInsn(CHECKCAST, Type.getType(desc)
+                        .getInternalName());
+                mv.visitFieldInsn(PUTFIELD, internalName, "m" + i, desc);
+                if (infos.get(i).names != null) {
+                    mv.visitVarInsn(ALOAD, 0);
+                    mv.visitVarInsn(ALOAD, 3);
+                    mv.visitLdcInsn(i);
+                    mv.visitInsn(AALOAD);
+                    mv.visitFieldInsn(PUTFIELD, internalName, "n" + i,
+                            SLOTS_DESC);
+                }
+            }
+            mv.visitInsn(RETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+
+        // message methods
+        for (int i = 0; i < infos.size(); i++) {
+            MethodInfo info = infos.get(i);
+            Method method = info.method;
+            MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, method.getName(),
+                    Type.getMethodDescriptor(method), null, null);
+            mv.visitCode();
+            switch (info.kind) {
+            case T_STRING:
+            case P_STRING:
+                mv.visitVarInsn(ALOAD, 0);
+                mv.visitFieldInsn(GETFIELD, internalName, "m" + i,
+                        fieldDescriptor(info.kind));
+                mv.visitInsn(ARETURN);
+                break;
+            case P_STRING_ARGS: {
+                mv.visitTypeInsn(NEW, P_STRING);
+                mv.visitInsn(DUP);
+                mv.visitVarInsn(ALOAD, 0);
+                mv.visitFieldInsn(GETFIELD, BASE, "pStringResolver",
+                        P_RESOLVER);
+                mv.visitVarInsn(ALOAD, 0);
+                mv.visitFieldInsn(GETFIELD, internalName, "m" + i,
+                        fieldDescriptor(info.kind));
+
+                // arguments, using the shared table of the parameter names
+                mv.visitTypeInsn(NEW, ARGUMENTS);
+                mv.visitInsn(DUP);
+                mv.visitVarInsn(ALOAD, 0);
+                mv.visitFieldInsn(GETFIELD, internalName, "n" + i, SLOTS_DESC);
+                Class<?>[] parameterTypes = method.getParameterTypes();
+                mv.visitLdcInsn(parameterTypes.length);
+                mv.visitTypeInsn(ANEWARRAY, "java/lang/Object");
+                int local = 1;
+                for (int p = 0; p < parameterTypes.length; p++) {
+                    mv.visitInsn(DUP);
+                    mv.visitLdcInsn(p);
+                    Type type = Type.getType(parameterTypes[p]);
+                    mv.visitVarInsn(type.getOpcode(ILOAD), local);
+                    box(mv, type);
+                    mv.visitInsn(AASTORE);
+                    local += type.getSize();
+                }
+                mv.visitMethodInsn(INVOKESPECIAL, ARGUMENTS, "<init>", "("
+                        + SLOTS_DESC + "[Ljava/lang/Object;)V", false);
+                mv.visitMethodInsn(INVOKESPECIAL, P_STRING, "<init>", "("
+                        + P_RESOLVER + Type.getDescriptor(LString.class) + "L"
+                        + ARGUMENTS + ";)V", false);
+                mv.visitInsn(ARETURN);
+                break;
+            }
+            case ERROR:
+                mv.visitTypeInsn(NEW, EXCEPTION);
+                mv.visitInsn(DUP);
+                mv.visitVarInsn(ALOAD, 0);
+                mv.visitFieldInsn(GETFIELD, internalName, "m" + i,
+                        fieldDescriptor(info.kind));
+                mv.visitMethodInsn(INVOKESPECIAL, EXCEPTION, "<init>",
+                        "(Ljava/lang/String;)V", false);
+                mv.visitInsn(ATHROW);
+                break;
+            }
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    /**
+     * Box the primitive value on top of the stack. References are left
+     * untouched.
+     */
+    private static void box(MethodVisitor mv, Type type) {
+        Type boxed;
+        switch (type.getSort()) {
+        case Type.BOOLEAN:
+            boxed = Type.getType(Boolean.class);
+            break;
+        case Type.CHAR:
+            boxed = Type.getType(Character.class);
+            break;
+        case Type.BYTE:
+            boxed = Type.getType(Byte.class);
+            break;
+        case Type.SHORT:
+            boxed = Type.getType(Short.class);
+            break;
+        case Type.INT:
+            boxed = Type.getType(Integer.class);
+            break;
+        case Type.FLOAT:
+            boxed = Type.getType(Float.class);
+            break;
+        case Type.LONG:
+            boxed = Type.getType(Long.class);
+            break;
+        case Type.DOUBLE:
+            boxed = Type.getType(Double.class);
+            break;
+        default:
+            return;
+        }
+        mv.visitMethodInsn(INVOKESTATIC, boxed.getInternalName(), "valueOf",
+                "(" + type.getDescriptor() + ")" + boxed.getDescriptor(),
+                false);
+    }
+}
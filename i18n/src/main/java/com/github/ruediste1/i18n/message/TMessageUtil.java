@@ -3,7 +3,8 @@ package com.github.ruediste1.i18n.message;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -12,7 +13,22 @@ import com.github.ruediste1.i18n.lString.PatternString;
 import com.github.ruediste1.i18n.lString.PatternStringResolver;
 import com.github.ruediste1.i18n.lString.TranslatedString;
 import com.github.ruediste1.i18n.lString.TranslatedStringResolver;
+import com.github.ruediste1.i18n.messageFormat.ArgumentSlots;
+import com.github.ruediste1.i18n.messageFormat.MessageArguments;
 
+/**
+ * Creates instances of message interfaces, which are interfaces annotated with
+ * {@link TMessages}. Each method of a message interface returns a
+ * {@link TranslatedString} or a {@link PatternString} with the arguments of the
+ * method.
+ *
+ * <p>
+ * The implementations of public interfaces are generated using the
+ * {@link TMessageBytecodeGenerator}, with the keys and fallbacks of all methods
+ * computed up front. For other interfaces, a {@link Proxy} is used. The
+ * instances are cached per interface and use the resolvers injected at the
+ * time of their creation.
+ */
 @Singleton
 public class TMessageUtil {
 
@@ -22,27 +38,70 @@ public class TMessageUtil {
     @Inject
     TranslatedStringResolver tStringResovler;
 
-    @SuppressWarnings("unchecked")
+    /**
+     * Translated string and parameter names of a method invoked through a
+     * proxy, computed on the first invocation
+     */
+    private static class ProxyMethod {
+        final TranslatedString tString;
+        final ArgumentSlots parameterNames;
+
+        ProxyMethod(TranslatedString tString, ArgumentSlots parameterNames) {
+            this.tString = tString;
+            this.parameterNames = parameterNames;
+        }
+    }
+
+    private final ConcurrentMap<Method, ProxyMethod> proxyMethods = new ConcurrentHashMap<>();
+
+    private final ClassValue<Object> instances = new ClassValue<Object>() {
+        @Override
+        protected Object computeValue(Class<?> type) {
+            return createInstance(type);
+        }
+    };
+
     public <T> T getMessageInterfaceInstance(Class<T> clazz) {
         if (!clazz.isAnnotationPresent(TMessages.class)) {
             throw new RuntimeException(
                     "Message interfaces need to be annotated with @TMessages: "
                             + clazz);
         }
-        return (T) Proxy.newProxyInstance(clazz.getClassLoader(),
-                new Class<?>[] { clazz }, this::invoke);
+        return clazz.cast(instances.get(clazz));
     }
 
-    private Object invoke(Object proxy, Method method, Object[] args)
-            throws Throwable {
+    /**
+     * Create the instance of a message interface. Interfaces which cannot be
+     * accessed by generated code are implemented using a proxy. Failures of
+     * the generator are not hidden by falling back to a proxy.
+     */
+    private Object createInstance(Class<?> clazz) {
+        if (TMessageBytecodeGenerator.canGenerate(clazz))
+            return TMessageBytecodeGenerator.create(clazz, pStringResolver,
+                    tStringResovler);
+        return Proxy.newProxyInstance(clazz.getClassLoader(),
+                new Class<?>[] { clazz }, this::invoke);
+    }
 
+    private ProxyMethod createProxyMethod(Method method) {
         // calculate fallback
         String fallback = TMessagePatternExtractionUtil
                 .getMessageFallback(method);
 
         // build string
-        TranslatedString tString = new TranslatedString(tStringResovler,
+        TranslatedString tString = TranslatedString.intern(tStringResovler,
                 TMessagePatternExtractionUtil.getMethodKey(method), fallback);
+        return new ProxyMethod(tString,
+                TMessageBytecodeGenerator.parameterNames(method));
+    }
+
+    private Object invoke(Object proxy, Method method, Object[] args)
+            throws Throwable {
+        ProxyMethod proxyMethod = proxyMethods.get(method);
+        if (proxyMethod == null)
+            proxyMethod = proxyMethods.computeIfAbsent(method,
+                    this::createProxyMethod);
+        TranslatedString tString = proxyMethod.tString;
 
         if (args == null || args.length == 0) {
             // no arguments
@@ -59,13 +118,9 @@ public class TMessageUtil {
         } else {
             // there are arguments
             if (method.getReturnType().isAssignableFrom(PatternString.class)) {
-                // build parameter map
-                HashMap<String, Object> parameters = new HashMap<>();
-                for (int i = 0; i < method.getParameters().length; i++) {
-                    parameters
-                            .put(method.getParameters()[i].getName(), args[i]);
-                }
-                return new PatternString(pStringResolver, tString, parameters);
+                // the argument array is not reused by the proxy
+                return new PatternString(pStringResolver, tString,
+                        new MessageArguments(proxyMethod.parameterNames, args));
             }
             throw new RuntimeException("The return type of " + method
                     + " must be assigneable from LString or PatternString");
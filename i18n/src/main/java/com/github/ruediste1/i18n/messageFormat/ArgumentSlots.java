@@ -0,0 +1,173 @@
+package com.github.ruediste1.i18n.messageFormat;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.github.ruediste1.i18n.messageFormat.ast.PatternNode;
+
+/**
+ * Table mapping the argument names of a pattern to integer slots.
+ *
+ * <p>
+ * When a pattern is compiled, each argument name referenced by the pattern is
+ * assigned a slot and the nodes of the syntax tree are bound to these slots
+ * (see {@link PatternNode#bindSlots(ArgumentSlots)}). During formatting, the
+ * arguments are then read from an array instead of being looked up by name.
+ *
+ * <p>
+ * The name table is immutable. In addition, each instance remembers how its
+ * slots map to the slots of the table of the last {@link MessageArguments}
+ * it read values from (see {@link #values(Map)}).
+ */
+public final class ArgumentSlots {
+
+    private final String[] names;
+    private final Map<String, Integer> slots;
+
+    /**
+     * Mapping from the slots of this table to the slots of a source table
+     */
+    private static final class SlotMapping {
+        final ArgumentSlots source;
+
+        /**
+         * Slot in the source table for each slot of this table, -1 if the
+         * source has no such name. Null if both tables assign the same names
+         * to the same slots.
+         */
+        final int[] sourceSlots;
+
+        SlotMapping(ArgumentSlots source, ArgumentSlots target) {
+            this.source = source;
+            int[] sourceSlots = new int[target.names.length];
+            boolean same = target.names.length == source.names.length;
+            for (int i = 0; i < sourceSlots.length; i++) {
+                sourceSlots[i] = source.getSlot(target.names[i]);
+                same &= sourceSlots[i] == i;
+            }
+            this.sourceSlots = same ? null : sourceSlots;
+        }
+    }
+
+    /**
+     * Mapping to the table of the last {@link MessageArguments} values were
+     * read from. Name tables are typically shared by all calls of a message,
+     * thus the mapping is computed once per table.
+     */
+    private volatile SlotMapping lastMapping;
+
+    private ArgumentSlots(String[] names) {
+        this.names = names;
+        slots = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            if (slots.put(names[i], i) != null)
+                throw new IllegalArgumentException("Duplicate argument name "
+                        + names[i]);
+        }
+    }
+
+    /**
+     * Create a table assigning the slots in the iteration order of the given
+     * names
+     */
+    public static ArgumentSlots of(Collection<String> names) {
+        return new ArgumentSlots(names.toArray(new String[names.size()]));
+    }
+
+    /**
+     * Create a table for the arguments referenced by the given node, assigning
+     * the slots in the order of {@link PatternNode#argumentNames()}, and bind
+     * the node to it.
+     */
+    public static ArgumentSlots bind(PatternNode node) {
+        ArgumentSlots result = of(node.argumentNames());
+        node.bindSlots(result);
+        return result;
+    }
+
+    /**
+     * Number of slots
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Return the slot of the given argument name, or -1 if the name has no
+     * slot.
+     */
+    public int getSlot(String name) {
+        Integer slot = slots.get(name);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * Return the argument name of the given slot
+     */
+    public String getName(int slot) {
+        return names[slot];
+    }
+
+    /**
+     * Return the argument names, indexed by slot
+     */
+    public List<String> getNames() {
+        return Collections.unmodifiableList(Arrays.asList(names));
+    }
+
+    /**
+     * Return the values of the given arguments, indexed by slot. Arguments
+     * without slot are ignored, missing arguments are null.
+     */
+    public Object[] toArray(Map<String, ?> arguments) {
+        Object[] values = new Object[names.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = arguments.get(names[i]);
+        }
+        return values;
+    }
+
+    /**
+     * Return the values of the given arguments, indexed by slot, like
+     * {@link #toArray(Map)}. If the arguments are {@link MessageArguments}
+     * whose table assigns the same names to the same slots, their value array
+     * is returned without copying. The result may thus not be modified.
+     * Otherwise the values are copied using the mapping between the two
+     * tables, which is kept until arguments with another table are passed.
+     */
+    public Object[] values(Map<String, ?> arguments) {
+        if (arguments instanceof MessageArguments)
+            return values((MessageArguments) arguments);
+        return toArray(arguments);
+    }
+
+    private Object[] values(MessageArguments arguments) {
+        ArgumentSlots source = arguments.getNames();
+        if (source == this)
+            return arguments.getValues();
+        SlotMapping mapping = lastMapping;
+        if (mapping == null || mapping.source != source) {
+            mapping = new SlotMapping(source, this);
+            lastMapping = mapping;
+        }
+        if (mapping.sourceSlots == null)
+            return arguments.getValues();
+        int[] sourceSlots = mapping.sourceSlots;
+        Object[] result = new Object[sourceSlots.length];
+        for (int i = 0; i < result.length; i++) {
+            int slot = sourceSlots[i];
+            if (slot >= 0)
+                result[i] = arguments.getValue(slot);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "ArgumentSlots" + Arrays.toString(names);
+    }
+}
@@ -0,0 +1,361 @@
+package com.github.ruediste1.i18n.messageFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import com.github.ruediste1.i18n.messageFormat.ast.PatternNode;
+
+/**
+ * A parsed message pattern, which can be formatted repeatedly with different
+ * arguments and locales.
+ * 
+ * <p>
+ * Instances are created by {@link MessageFormat#compile(String)}. They are
+ * thread safe and can be shared freely.
+ * 
+ * <p>
+ * Messages are formatted by interpreting the syntax tree. If a bytecode
+ * compilation threshold is set, the tree is compiled to a generated class
+ * using the {@link PatternBytecodeCompiler} once the message has been
+ * formatted that many times. If the compilation fails, the message stays
+ * interpreted and the failure is reported to the
+ * {@link MessageFormatListener}.
+ */
+public class CompiledMessage {
+
+    private final String pattern;
+    private final PatternNode node;
+    private final ArgumentSlots slots;
+    /**
+     * Preparation function passed to the formatting contexts, null if the
+     * arguments are used as is
+     */
+    private final BiFunction<Object, ? super Locale, Object> argumentPreparationFunction;
+
+    /**
+     * Number of formatting runs after which the message is compiled to
+     * bytecode. Zero if compilation is disabled.
+     */
+    private final int bytecodeCompilationThreshold;
+
+    /**
+     * Listener notified about formatting, null if there is none
+     */
+    private final MessageFormatListener listener;
+
+    /**
+     * Number of formatting runs so far. Only counted until the compilation is
+     * started, thus the count stays close to the threshold.
+     */
+    private final AtomicInteger hits = new AtomicInteger();
+
+    private final AtomicBoolean compilationStarted = new AtomicBoolean();
+
+    /**
+     * Segments used when streaming the message, created on first use
+     */
+    private volatile MessageSegments segments;
+
+    /**
+     * Node used to format the message. Either the syntax tree or the node
+     * generated from it.
+     */
+    private volatile PatternNode executable;
+
+    /**
+     * @param node
+     *            root of the syntax tree, already bound to the slots
+     */
+    CompiledMessage(String pattern, PatternNode node, ArgumentSlots slots,
+            BiFunction<Object, ? super Locale, Object> argumentPreparationFunction,
+            int bytecodeCompilationThreshold, MessageFormatListener listener) {
+        this.pattern = pattern;
+        this.node = node;
+        this.slots = slots;
+        this.argumentPreparationFunction = argumentPreparationFunction;
+        this.bytecodeCompilationThreshold = bytecodeCompilationThreshold;
+        this.listener = listener;
+        this.executable = node;
+    }
+
+    /**
+     * Return the node to format the message with, compiling the syntax tree if
+     * the threshold is reached
+     */
+    private PatternNode getExecutable() {
+        PatternNode result = executable;
+        if (result == node && bytecodeCompilationThreshold > 0
+                && !compilationStarted.get()
+                && hits.incrementAndGet() >= bytecodeCompilationThreshold
+                && compilationStarted.compareAndSet(false, true)) {
+            result = compileTree();
+        }
+        return result;
+    }
+
+    /**
+     * Compile the syntax tree to bytecode. If the compilation fails, the
+     * listener is notified, the tree is returned and the message stays
+     * interpreted.
+     */
+    private PatternNode compileTree() {
+        try {
+            PatternNode result = PatternBytecodeCompiler.compile(node);
+            executable = result;
+            return result;
+        } catch (RuntimeException e) {
+            if (listener != null)
+                listener.compilationFailed(pattern, e);
+            return node;
+        }
+    }
+
+    /**
+     * Return the node to format a batch of messages with. Batches are expected
+     * to be large, thus the syntax tree is compiled right away if bytecode
+     * compilation is enabled, without waiting for the threshold.
+     */
+    private PatternNode getBatchExecutable() {
+        PatternNode result = executable;
+        if (result == node && bytecodeCompilationThreshold > 0
+                && compilationStarted.compareAndSet(false, true)) {
+            result = compileTree();
+        }
+        return result;
+    }
+
+    /**
+     * Determine if the message is formatted using bytecode generated from the
+     * pattern
+     */
+    public boolean isBytecodeCompiled() {
+        return executable != node;
+    }
+
+    /**
+     * Format the message using the given arguments. The arguments are passed
+     * through the argument preparation function of the {@link MessageFormat}
+     * this message has been compiled with. The function is only applied to
+     * arguments actually read during formatting, at most once per argument.
+     */
+    public String format(Map<String, Object> arguments, Locale locale) {
+        return format(createContext(arguments, locale));
+    }
+
+    /**
+     * Format the message using the given argument values, indexed by the
+     * slots of {@link #getArgumentSlots()}. The values are passed through the
+     * argument preparation function like in {@link #format(Map, Locale)}, the
+     * array is not modified.
+     */
+    public String format(Object[] arguments, Locale locale) {
+        return format(createContext(arguments, locale));
+    }
+
+    private String format(FormattingContext ctx) {
+        return format(getExecutable(), ctx);
+    }
+
+    /**
+     * Format the message using the given executable node
+     */
+    String format(PatternNode executable, FormattingContext ctx) {
+        StringBuilder sb = new StringBuilder(pattern.length() + 16);
+        formatTo(executable, ctx, sb);
+        return sb.toString();
+    }
+
+    /**
+     * Format the message using the given executable node, notifying the
+     * listener
+     */
+    void formatTo(PatternNode executable, FormattingContext ctx,
+            StringBuilder sb) {
+        formatTo(ctx, executable, sb, PatternNode::formatTo);
+    }
+
+    /**
+     * Writes a message from a source, such as a node or the segments, to a
+     * target
+     */
+    @FunctionalInterface
+    private interface WriteAction<S, T, E extends Exception> {
+        void write(S source, FormattingContext ctx, T target) throws E;
+    }
+
+    /**
+     * Perform the given write action, notifying the listener about the time
+     * taken or the failure. The actions passed are not capturing, thus no
+     * object is allocated per call.
+     */
+    private <S, T, E extends Exception> void formatTo(FormattingContext ctx,
+            S source, T target, WriteAction<S, T, E> action) throws E {
+        if (listener == null) {
+            action.write(source, ctx, target);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            action.write(source, ctx, target);
+        } catch (RuntimeException e) {
+            listener.formatFailed(pattern, ctx.getLocale(), e);
+            throw e;
+        }
+        listener.messageFormatted(pattern, ctx.getLocale(), System.nanoTime()
+                - start);
+    }
+
+    FormattingContext createContext(Map<String, Object> arguments,
+            Locale locale) {
+        return new FormattingContext(locale, slots, slots.values(arguments),
+                argumentPreparationFunction);
+    }
+
+    /**
+     * Create a context to be reused for many messages, keeping the localized
+     * formatters. Set the arguments with
+     * {@link FormattingContext#setValues(Object[])} before each message.
+     */
+    FormattingContext createReusableContext(Locale locale) {
+        FormattingContext ctx = new FormattingContext(locale, slots,
+                new Object[slots.size()], argumentPreparationFunction);
+        ctx.keepLocalized();
+        return ctx;
+    }
+
+    FormattingContext createContext(Object[] arguments, Locale locale) {
+        if (arguments.length != slots.size())
+            throw new IllegalArgumentException("Expected " + slots.size()
+                    + " arguments for " + slots + ", got " + arguments.length);
+        return new FormattingContext(locale, slots, arguments,
+                argumentPreparationFunction);
+    }
+
+    /**
+     * Format the message using the given arguments, appending the result to
+     * the given builder. Apart from that, this method behaves like
+     * {@link #format(Map, Locale)}.
+     */
+    public void formatTo(Map<String, Object> arguments, Locale locale,
+            StringBuilder sb) {
+        formatTo(getExecutable(), createContext(arguments, locale), sb);
+    }
+
+    /**
+     * Format the message using the given arguments, appending the result to
+     * the given {@link Appendable}. If the target is a {@link StringBuilder},
+     * the nodes append to it directly.
+     */
+    public void formatTo(Map<String, Object> arguments, Locale locale,
+            Appendable target) throws IOException {
+        if (target instanceof StringBuilder) {
+            formatTo(arguments, locale, (StringBuilder) target);
+        } else if (target instanceof Writer) {
+            formatTo(arguments, locale, (Writer) target);
+        } else {
+            target.append(format(arguments, locale));
+        }
+    }
+
+    /**
+     * Format the message using the given arguments, writing the result to the
+     * given writer. Literal parts of the pattern are written directly, without
+     * building the whole message first.
+     */
+    public void formatTo(Map<String, Object> arguments, Locale locale,
+            Writer writer) throws IOException {
+        formatTo(createContext(arguments, locale), getSegments(), writer,
+                MessageSegments::writeTo);
+    }
+
+    /**
+     * Format the message using the given arguments, writing the result encoded
+     * in UTF-8 to the given stream. The literal parts of the pattern are
+     * encoded only once, only the formatted arguments are encoded per call.
+     */
+    public void formatTo(Map<String, Object> arguments, Locale locale,
+            OutputStream out) throws IOException {
+        formatTo(createContext(arguments, locale), getSegments(), out,
+                MessageSegments::writeTo);
+    }
+
+    /**
+     * Format the message using the given arguments, putting the result encoded
+     * in UTF-8 into the given buffer. Like
+     * {@link #formatTo(Map, Locale, OutputStream)}, the literal parts of the
+     * pattern are encoded only once.
+     * 
+     * @throws BufferOverflowException
+     *             if the remaining space of the buffer is too small. In this
+     *             case, part of the message might have been written to the
+     *             buffer.
+     */
+    public void formatTo(Map<String, Object> arguments, Locale locale,
+            ByteBuffer buffer) {
+        formatTo(createContext(arguments, locale), getSegments(), buffer,
+                MessageSegments::writeTo);
+    }
+
+    /**
+     * Create a batch formatting this message many times in the given locale
+     */
+    public MessageBatch batch(Locale locale) {
+        return new MessageBatch(this, locale, getBatchExecutable(), false);
+    }
+
+    /**
+     * Return the segments used for streaming, creating them on first use
+     */
+    private MessageSegments getSegments() {
+        MessageSegments result = segments;
+        if (result == null) {
+            // creating the segments multiple times does no harm
+            result = new MessageSegments(node);
+            segments = result;
+        }
+        return result;
+    }
+
+    /**
+     * The pattern this message has been compiled from
+     */
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * The root of the syntax tree of the pattern. The tree may not be modified.
+     */
+    public PatternNode getNode() {
+        return node;
+    }
+
+    /**
+     * The slots assigned to the arguments referenced by the pattern. Used to
+     * construct the argument array for {@link #format(Object[], Locale)}.
+     */
+    public ArgumentSlots getArgumentSlots() {
+        return slots;
+    }
+
+    /**
+     * The names of all arguments referenced by the pattern
+     */
+    public Set<String> getArgumentNames() {
+        return node.argumentNames();
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledMessage(" + pattern + ")";
+    }
+}
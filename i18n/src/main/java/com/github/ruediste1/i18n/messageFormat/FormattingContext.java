@@ -1,20 +1,190 @@
 package com.github.ruediste1.i18n.messageFormat;
 
-import java.util.HashMap;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiFunction;
 
 /**
  * Context information for formatting a pattern
+ * 
+ * <p>
+ * The arguments are stored in an array, indexed by the slots of an
+ * {@link ArgumentSlots} table. Nodes bound to the same table read their
+ * arguments by slot, all other accesses go through the argument name.
+ * 
+ * <p>
+ * If a preparation function is given, each argument is passed through it when
+ * it is read for the first time. Arguments which are never read are not
+ * prepared at all. Contexts are used by a single formatting run and are not
+ * thread safe.
+ * 
+ * <p>
+ * Nodes obtain their locale specific formatters through
+ * {@link #getLocalized(Object, BiFunction)}. Contexts used by a
+ * {@link MessageBatch} are reused for many rows and keep these formatters, all
+ * other contexts create them on each access.
  */
 public class FormattingContext {
+	private static final Object NOT_PREPARED = new Object();
+
 	private final Locale locale;
-	private final Map<String, Object> arguments;
+	private final ArgumentSlots slots;
+	private Object[] values;
+
+	/**
+	 * Function to prepare the arguments, null if the values are used as is
+	 */
+	private final BiFunction<Object, ? super Locale, Object> preparationFunction;
+
+	/**
+	 * Prepared arguments, indexed by slot. Contains {@link #NOT_PREPARED} for
+	 * arguments not read so far. Null if there is no preparation function.
+	 */
+	private final Object[] prepared;
 
+	/**
+	 * Localized objects created so far, by key. Null if they are not kept.
+	 */
+	private Map<Object, Object> localized;
+
+	/**
+	 * View returned by {@link #getArguments()}, created on first access
+	 */
+	private Map<String, Object> arguments;
+
+	/**
+	 * Create a context containing the entries of the given map.
+	 * {@link MessageArguments} are used without copying.
+	 */
 	public FormattingContext(Locale locale, Map<String, Object> arguments) {
-		super();
 		this.locale = locale;
-		this.arguments = new HashMap<>(arguments);
+		preparationFunction = null;
+		prepared = null;
+		if (arguments instanceof MessageArguments) {
+			// use the table and values directly
+			MessageArguments messageArguments = (MessageArguments) arguments;
+			slots = messageArguments.getNames();
+			values = messageArguments.getValues();
+			return;
+		}
+		String[] names = new String[arguments.size()];
+		values = new Object[arguments.size()];
+		int i = 0;
+		for (Entry<String, Object> entry : arguments.entrySet()) {
+			names[i] = entry.getKey();
+			values[i] = entry.getValue();
+			i++;
+		}
+		slots = ArgumentSlots.of(Arrays.asList(names));
+	}
+
+	/**
+	 * Create a context using the given values, indexed by the slots of the
+	 * given table. The array is not copied and may not be modified while the
+	 * context is in use.
+	 */
+	public FormattingContext(Locale locale, ArgumentSlots slots,
+			Object[] values) {
+		this(locale, slots, values, null);
+	}
+
+	/**
+	 * Create a context using the given values, indexed by the slots of the
+	 * given table. Non-null values are passed through the preparation function
+	 * when they are first read. The array is not copied and may not be
+	 * modified while the context is in use.
+	 * 
+	 * @param preparationFunction
+	 *            function to prepare the values, or null to use them as is
+	 */
+	public FormattingContext(Locale locale, ArgumentSlots slots,
+			Object[] values,
+			BiFunction<Object, ? super Locale, Object> preparationFunction) {
+		if (values.length != slots.size())
+			throw new IllegalArgumentException("Expected " + slots.size()
+					+ " argument values, got " + values.length);
+		this.locale = locale;
+		this.slots = slots;
+		this.values = values;
+		this.preparationFunction = preparationFunction;
+		if (preparationFunction == null)
+			prepared = null;
+		else {
+			prepared = new Object[values.length];
+			Arrays.fill(prepared, NOT_PREPARED);
+		}
+	}
+
+	/**
+	 * Replace the argument values, for reusing the context for another
+	 * message. The localized objects are kept.
+	 */
+	void setValues(Object[] values) {
+		if (values.length != slots.size())
+			throw new IllegalArgumentException("Expected " + slots.size()
+					+ " argument values, got " + values.length);
+		this.values = values;
+		if (prepared != null)
+			Arrays.fill(prepared, NOT_PREPARED);
+	}
+
+	/**
+	 * Keep the objects created by {@link #getLocalized(Object, BiFunction)},
+	 * instead of creating them on each access
+	 */
+	void keepLocalized() {
+		if (localized == null)
+			localized = new IdentityHashMap<>();
+	}
+
+	/**
+	 * Return an object bound to the locale of this context, typically a
+	 * formatter, created by passing the key and the locale to the factory.
+	 * The returned object is used by the calling thread only, thus the
+	 * factory may return objects which are not thread safe.
+	 * 
+	 * <p>
+	 * If the context is reused for many messages, the object is created once
+	 * per key, compared by identity, and returned for all further accesses.
+	 * Otherwise the factory is called on each access. Pass a non-capturing
+	 * factory to avoid allocations.
+	 */
+	@SuppressWarnings("unchecked")
+	public <K, T> T getLocalized(K key,
+			BiFunction<? super K, ? super Locale, ? extends T> factory) {
+		if (localized == null)
+			return factory.apply(key, locale);
+		Object result = localized.get(key);
+		if (result == null) {
+			result = factory.apply(key, locale);
+			localized.put(key, result);
+		}
+		return (T) result;
+	}
+
+	/**
+	 * Return the value of a slot, preparing it if necessary
+	 */
+	private Object value(int slot) {
+		if (prepared == null)
+			return values[slot];
+		Object result = prepared[slot];
+		if (result == NOT_PREPARED) {
+			Object value = values[slot];
+			result = value == null ? null : preparationFunction.apply(value,
+					locale);
+			prepared[slot] = result;
+		}
+		return result;
 	}
 
 	public Locale getLocale() {
@@ -22,10 +192,138 @@ public class FormattingContext {
 	}
 
 	public Object getArgument(String key) {
-		return arguments.get(key);
+		int slot = slots.getSlot(key);
+		return slot < 0 ? null : value(slot);
 	}
 
+	/**
+	 * Return the argument of the given slot, if the slot belongs to the given
+	 * name. Otherwise, the argument is looked up by name. This allows nodes to
+	 * be used with contexts not based on the table the nodes have been bound
+	 * to.
+	 */
+	public Object getArgument(int slot, String key) {
+		if (slot >= 0 && slot < values.length) {
+			String name = slots.getName(slot);
+			if (name == key || name.equals(key))
+				return value(slot);
+		}
+		return getArgument(key);
+	}
+
+	public ArgumentSlots getSlots() {
+		return slots;
+	}
+
+	/**
+	 * Return the arguments as map. The same instance is returned on each
+	 * call. The map is a read-only view of the arguments of this context,
+	 * ordered by slot. Arguments are prepared when their value is read
+	 * through the map, as for {@link #getArgument(String)}.
+	 * 
+	 * <p>
+	 * The map cannot be modified. To format with different arguments, create
+	 * a new context.
+	 */
 	public Map<String, Object> getArguments() {
+		if (arguments == null)
+			arguments = new ArgumentMap();
 		return arguments;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Read-only map view of the arguments, backed by the slot arrays
+	 */
+	private class ArgumentMap extends AbstractMap<String, Object> {
+
+		@Override
+		public int size() {
+			return values.length;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return key instanceof String && slots.getSlot((String) key) >= 0;
+		}
+
+		@Override
+		public Object get(Object key) {
+			return key instanceof String ? getArgument((String) key) : null;
+		}
+
+		@Override
+		public Set<Entry<String, Object>> entrySet() {
+			return new AbstractSet<Entry<String, Object>>() {
+
+				@Override
+				public int size() {
+					return values.length;
+				}
+
+				@Override
+				public Iterator<Entry<String, Object>> iterator() {
+					return new Iterator<Entry<String, Object>>() {
+						private int slot;
+
+						@Override
+						public boolean hasNext() {
+							return slot < values.length;
+						}
+
+						@Override
+						public Entry<String, Object> next() {
+							if (!hasNext())
+								throw new NoSuchElementException();
+							return new ArgumentEntry(slot++);
+						}
+					};
+				}
+			};
+		}
+	}
+
+	/**
+	 * Entry of the {@link ArgumentMap}, preparing the value when it is read
+	 */
+	private class ArgumentEntry implements Entry<String, Object> {
+		private final int slot;
+
+		ArgumentEntry(int slot) {
+			this.slot = slot;
+		}
+
+		@Override
+		public String getKey() {
+			return slots.getName(slot);
+		}
+
+		@Override
+		public Object getValue() {
+			return value(slot);
+		}
+
+		@Override
+		public Object setValue(Object value) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Entry))
+				return false;
+			Entry<?, ?> other = (Entry<?, ?>) obj;
+			return getKey().equals(other.getKey())
+					&& Objects.equals(getValue(), other.getValue());
+		}
+
+		@Override
+		public int hashCode() {
+			return getKey().hashCode() ^ Objects.hashCode(getValue());
+		}
+
+		@Override
+		public String toString() {
+			return getKey() + "=" + getValue();
+		}
+	}
+}
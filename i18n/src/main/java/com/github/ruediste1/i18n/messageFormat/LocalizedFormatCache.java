@@ -0,0 +1,43 @@
+package com.github.ruediste1.i18n.messageFormat;
+
+import java.text.Format;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Caches the {@link Format}s created by a factory per {@link Locale}.
+ *
+ * <p>
+ * Formats are expensive to create, but are not thread safe. Therefore one
+ * template is created per locale, and each call to {@link #apply(Locale)}
+ * returns a clone of it. Cloning is much cheaper than creating a new instance.
+ * The templates are stored in a {@link ConcurrentHashMap}, so lookups of
+ * already known locales do not lock.
+ */
+public class LocalizedFormatCache<F extends Format> implements
+        Function<Locale, F> {
+
+    private final Function<Locale, ? extends F> factory;
+    private final ConcurrentMap<Locale, F> templates = new ConcurrentHashMap<>();
+
+    public LocalizedFormatCache(Function<Locale, ? extends F> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Return a new format for the given locale, which can be used by the
+     * calling thread exclusively.
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public F apply(Locale locale) {
+        F template = templates.get(locale);
+        if (template == null) {
+            template = templates.computeIfAbsent(locale, factory);
+        }
+        return (F) template.clone();
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.github.ruediste1.i18n.messageFormat;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable arguments of a message, consisting of a table of argument names
+ * and an array of values indexed by the slots of the table.
+ *
+ * <p>
+ * The name table is typically shared by all calls of a message, thus creating
+ * the arguments only allocates the value array. The arguments are a read only
+ * {@link Map}, which can be passed to the {@link MessageFormat} without being
+ * copied. If the names of the table match the {@link ArgumentSlots} of a
+ * {@link CompiledMessage}, the value array is used for formatting directly.
+ * Otherwise the values are copied to the slots of the message, using a
+ * mapping computed once per table.
+ */
+public final class MessageArguments extends AbstractMap<String, Object> {
+
+    private final ArgumentSlots names;
+    private final Object[] values;
+
+    /**
+     * Create arguments using the given values, indexed by the slots of the
+     * given table. The array is not copied and may not be modified
+     * afterwards.
+     */
+    public MessageArguments(ArgumentSlots names, Object... values) {
+        if (values.length != names.size())
+            throw new IllegalArgumentException("Expected " + names.size()
+                    + " arguments for " + names + ", got " + values.length);
+        this.names = names;
+        this.values = values;
+    }
+
+    /**
+     * The table of the argument names
+     */
+    public ArgumentSlots getNames() {
+        return names;
+    }
+
+    /**
+     * Return the value of the given slot
+     */
+    public Object getValue(int slot) {
+        return values[slot];
+    }
+
+    /**
+     * Return the value array, indexed by the slots of {@link #getNames()}.
+     * The array is not copied and may not be modified.
+     */
+    Object[] getValues() {
+        return values;
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String && names.getSlot((String) key) >= 0;
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (!(key instanceof String))
+            return null;
+        int slot = names.getSlot((String) key);
+        return slot < 0 ? null : values[slot];
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<Entry<String, Object>>() {
+
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new Iterator<Entry<String, Object>>() {
+                    int slot;
+
+                    @Override
+                    public boolean hasNext() {
+                        return slot < values.length;
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        if (slot >= values.length)
+                            throw new NoSuchElementException();
+                        Entry<String, Object> result = new SimpleImmutableEntry<>(
+                                names.getName(slot), values[slot]);
+                        slot++;
+                        return result;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return values.length;
+            }
+        };
+    }
+}
@@ -0,0 +1,341 @@
+package com.github.ruediste1.i18n.messageFormat;
+
+import static java.util.function.Function.identity;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import com.github.ruediste1.i18n.messageFormat.ast.PatternNode;
+
+/**
+ * Formats a single message many times in a single locale, for example once
+ * per row of an export. Created by {@link MessageFormat#batch(String, Locale)}
+ * or {@link CompiledMessage#batch(Locale)}.
+ *
+ * <p>
+ * The pattern is parsed once when the batch is created. If bytecode
+ * compilation is enabled, the message is compiled right away instead of
+ * waiting for the compilation threshold.
+ *
+ * <p>
+ * Arguments can be passed as maps or as arrays indexed by the
+ * {@link CompiledMessage#getArgumentSlots() slots} of the message. Messages
+ * are produced in the order of the arguments, even when formatting in
+ * parallel. Instances are thread safe.
+ *
+ * <p>
+ * The formatters bound to the locale, such as number and date formats, are
+ * created once per worker and reused for all messages the worker formats. A
+ * sequential run uses a single worker, a parallel run one worker per slice of
+ * a chunk. Workers are kept by the batch and reused by later runs.
+ */
+public final class MessageBatch {
+
+    /**
+     * Number of messages formatted together when formatting an
+     * {@link Iterable} in parallel
+     */
+    static final int CHUNK_SIZE = 1024;
+
+    /**
+     * Number of characters collected before writing them to a {@link Writer}
+     */
+    private static final int WRITE_BUFFER_SIZE = 8192;
+
+    /**
+     * Number of messages of a chunk formatted by a single worker
+     */
+    private static final int SLICE_SIZE = 64;
+
+    private final CompiledMessage message;
+    private final Locale locale;
+    private final PatternNode executable;
+    private final boolean parallel;
+
+    /**
+     * Workers not in use at the moment. Workers are created on demand, thus
+     * there are at most as many as threads using this batch at the same time.
+     */
+    private final Queue<Worker> idleWorkers = new ConcurrentLinkedQueue<>();
+
+    MessageBatch(CompiledMessage message, Locale locale,
+            PatternNode executable, boolean parallel) {
+        this.message = message;
+        this.locale = locale;
+        this.executable = executable;
+        this.parallel = parallel;
+    }
+
+    /**
+     * Create a batch formatting the messages in parallel, using the common
+     * fork join pool. Streams are turned into parallel streams, iterables are
+     * formatted in chunks of {@value #CHUNK_SIZE} messages. Sinks are still
+     * called sequentially.
+     */
+    public MessageBatch parallel() {
+        return new MessageBatch(message, locale, executable, true);
+    }
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    public CompiledMessage getMessage() {
+        return message;
+    }
+
+    public Locale getLocale() {
+        return locale;
+    }
+
+    /**
+     * Format a single message
+     */
+    public String format(Map<String, Object> arguments) {
+        return format(arguments, this::values);
+    }
+
+    /**
+     * Format a single message using argument values indexed by the slots of
+     * the message
+     */
+    public String format(Object[] arguments) {
+        return format(arguments, identity());
+    }
+
+    private <T> String format(T arguments, Function<T, Object[]> values) {
+        Worker worker = acquireWorker();
+        try {
+            return worker.format(values.apply(arguments));
+        } finally {
+            releaseWorker(worker);
+        }
+    }
+
+    /**
+     * Format a message for each element of the stream. The resulting stream
+     * is lazy, like any other stream.
+     */
+    public Stream<String> formatAll(
+            Stream<? extends Map<String, Object>> arguments) {
+        return (parallel ? arguments.parallel() : arguments)
+                .map(this::format);
+    }
+
+    /**
+     * Format a message for each argument array of the stream
+     */
+    public Stream<String> formatAllArrays(Stream<Object[]> arguments) {
+        return (parallel ? arguments.parallel() : arguments)
+                .map(this::format);
+    }
+
+    /**
+     * Format a message for each element, passing the messages to the sink in
+     * the order of the arguments. The sink is always called from the calling
+     * thread.
+     */
+    public void formatAll(Iterable<? extends Map<String, Object>> arguments,
+            Consumer<? super String> sink) {
+        formatAll(arguments, this::values, sink);
+    }
+
+    /**
+     * Format a message for each argument array, passing the messages to the
+     * sink like {@link #formatAll(Iterable, Consumer)}
+     */
+    public void formatAllArrays(Iterable<Object[]> arguments,
+            Consumer<? super String> sink) {
+        formatAll(arguments, identity(), sink);
+    }
+
+    private <T> void formatAll(Iterable<T> arguments,
+            Function<? super T, Object[]> values,
+            Consumer<? super String> sink) {
+        if (!parallel) {
+            Worker worker = acquireWorker();
+            try {
+                for (T args : arguments) {
+                    sink.accept(worker.format(values.apply(args)));
+                }
+            } finally {
+                releaseWorker(worker);
+            }
+            return;
+        }
+        List<T> chunk = new ArrayList<>(CHUNK_SIZE);
+        for (T args : arguments) {
+            chunk.add(args);
+            if (chunk.size() == CHUNK_SIZE) {
+                formatChunk(chunk, values).forEach(sink);
+                chunk.clear();
+            }
+        }
+        formatChunk(chunk, values).forEach(sink);
+    }
+
+    /**
+     * Format a chunk in parallel. The chunk is split into slices of
+     * {@value #SLICE_SIZE} messages, each formatted by a single worker.
+     */
+    private <T> List<String> formatChunk(List<T> chunk,
+            Function<? super T, Object[]> values) {
+        String[] result = new String[chunk.size()];
+        IntStream.range(0, (chunk.size() + SLICE_SIZE - 1) / SLICE_SIZE)
+                .parallel().forEach(slice -> {
+                    Worker worker = acquireWorker();
+                    try {
+                        int end = Math.min(chunk.size(), (slice + 1)
+                                * SLICE_SIZE);
+                        for (int i = slice * SLICE_SIZE; i < end; i++) {
+                            result[i] = worker.format(values.apply(chunk
+                                    .get(i)));
+                        }
+                    } finally {
+                        releaseWorker(worker);
+                    }
+                });
+        return Arrays.asList(result);
+    }
+
+    /**
+     * Format a message for each element and write it to the writer, followed
+     * by the separator. The output is buffered, but the writer is neither
+     * flushed nor closed.
+     */
+    public void writeAll(Iterable<? extends Map<String, Object>> arguments,
+            Writer writer, String separator) throws IOException {
+        writeAll(arguments, this::values, writer, separator);
+    }
+
+    /**
+     * Format a message for each argument array and write it to the writer,
+     * like {@link #writeAll(Iterable, Writer, String)}
+     */
+    public void writeAllArrays(Iterable<Object[]> arguments, Writer writer,
+            String separator) throws IOException {
+        writeAll(arguments, identity(), writer, separator);
+    }
+
+    private <T> void writeAll(Iterable<T> arguments,
+            Function<? super T, Object[]> values, Writer writer,
+            String separator) throws IOException {
+        WriteBuffer buffer = new WriteBuffer(writer);
+        if (parallel) {
+            try {
+                formatAll(arguments, values, msg -> {
+                    buffer.sb.append(msg).append(separator);
+                    try {
+                        buffer.flushIfFull();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        } else {
+            Worker worker = acquireWorker();
+            try {
+                for (T args : arguments) {
+                    worker.formatTo(values.apply(args), buffer.sb);
+                    buffer.sb.append(separator);
+                    buffer.flushIfFull();
+                }
+            } finally {
+                releaseWorker(worker);
+            }
+        }
+        buffer.flush();
+    }
+
+    private Object[] values(Map<String, Object> arguments) {
+        return message.getArgumentSlots().values(arguments);
+    }
+
+    private Worker acquireWorker() {
+        Worker worker = idleWorkers.poll();
+        return worker == null ? new Worker() : worker;
+    }
+
+    private void releaseWorker(Worker worker) {
+        worker.clear();
+        idleWorkers.offer(worker);
+    }
+
+    /**
+     * Formats messages one at a time, reusing a single
+     * {@link FormattingContext}. The context keeps the formatters bound to
+     * the locale of the batch, thus they are created once per worker instead
+     * of once per message. Used by a single thread at a time.
+     */
+    private final class Worker {
+        private final FormattingContext ctx = message
+                .createReusableContext(locale);
+        private final Object[] noValues = new Object[message
+                .getArgumentSlots().size()];
+
+        String format(Object[] values) {
+            ctx.setValues(values);
+            return message.format(executable, ctx);
+        }
+
+        void formatTo(Object[] values, StringBuilder sb) {
+            ctx.setValues(values);
+            message.formatTo(executable, ctx, sb);
+        }
+
+        /**
+         * Drop the reference to the last arguments
+         */
+        void clear() {
+            ctx.setValues(noValues);
+        }
+    }
+
+    /**
+     * Collects the output in a {@link StringBuilder} and writes it to the
+     * writer in larger blocks
+     */
+    private static class WriteBuffer {
+        final StringBuilder sb = new StringBuilder(WRITE_BUFFER_SIZE * 2);
+        private final Writer writer;
+        private char[] chars = new char[0];
+
+        WriteBuffer(Writer writer) {
+            this.writer = writer;
+        }
+
+        void flushIfFull() throws IOException {
+            if (sb.length() >= WRITE_BUFFER_SIZE)
+                flush();
+        }
+
+        void flush() throws IOException {
+            int length = sb.length();
+            if (chars.length < length)
+                chars = new char[Math.max(length, WRITE_BUFFER_SIZE * 2)];
+            sb.getChars(0, length, chars, 0);
+            writer.write(chars, 0, length);
+            sb.setLength(0);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "MessageBatch(" + message.getPattern() + ", " + locale
+                + (parallel ? ", parallel" : "") + ")";
+    }
+}
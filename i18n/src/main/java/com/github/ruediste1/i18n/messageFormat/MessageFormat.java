@@ -1,7 +1,5 @@
 package com.github.ruediste1.i18n.messageFormat;
 
-import static java.util.stream.Collectors.toMap;
-
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.text.NumberFormat;
@@ -10,20 +8,31 @@ import java.time.format.FormatStyle;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.function.BiFunction;
 
 import com.github.ruediste.lambdaPegParser.DefaultParsingContext;
 import com.github.ruediste.lambdaPegParser.ParserFactory;
 import com.github.ruediste.lambdaPegParser.Tracer;
 import com.github.ruediste1.i18n.lString.LString;
+import com.github.ruediste1.i18n.messageFormat.PatternScanner.UnsupportedFormatTypeException;
 import com.github.ruediste1.i18n.messageFormat.ast.PatternNode;
 import com.github.ruediste1.i18n.messageFormat.formatTypeParsers.DateParser;
 import com.github.ruediste1.i18n.messageFormat.formatTypeParsers.DateTimeParser;
 import com.github.ruediste1.i18n.messageFormat.formatTypeParsers.DateTimePatternParser;
 import com.github.ruediste1.i18n.messageFormat.formatTypeParsers.FormatTypeParser;
+import com.github.ruediste1.i18n.messageFormat.formatTypeParsers.FormatTypeScanner;
 import com.github.ruediste1.i18n.messageFormat.formatTypeParsers.NumberParser;
 import com.github.ruediste1.i18n.messageFormat.formatTypeParsers.PluralParser;
 import com.github.ruediste1.i18n.messageFormat.formatTypeParsers.TimeParser;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 
 /**
  * Takes a set of objects, formats them, then inserts the formatted strings into
@@ -63,7 +72,9 @@ import com.github.ruediste1.i18n.messageFormat.formatTypeParsers.TimeParser;
  * An additional extension point is the argument preparation function. If
  * specified, all argument values are passed through the function before further
  * treatment. This is especially useful to transform some unconventional objects
- * into a form known to the library.
+ * into a form known to the library. The function is applied lazily: only
+ * arguments read while formatting are prepared, each at most once per
+ * formatting run. Null arguments are not passed to the function.
  * 
  * The following table shows the default parsers provided. The argument object
  * is noted as {@code arg}
@@ -318,23 +329,161 @@ import com.github.ruediste1.i18n.messageFormat.formatTypeParsers.TimeParser;
  * </tr>
  * </table>
  * 
+ * <p>
+ * <b>Pattern Cache</b> <br>
+ * Parsed patterns are kept in a size bounded cache, keyed by the pattern
+ * string. The cache is thread safe, evicts the least recently used patterns
+ * once it is full and records hit and miss counts, which can be retrieved
+ * using {@link #getPatternCacheStats()}. The size can be set using
+ * {@link #withPatternCacheSize(int)}, a size of zero disables caching.
+ * 
+ * <p>
+ * To move parsing out of the formatting path altogether, a pattern can be
+ * parsed ahead of time using {@link #compile(String)}. The resulting
+ * {@link CompiledMessage} can be kept and formatted from any thread.
+ * 
+ * <p>
+ * <b>Parser Engine</b> <br>
+ * By default, patterns are parsed by the {@link PatternParser}, using the
+ * {@link FormatTypeParser}s. Alternatively, the hand written
+ * {@link PatternScanner} can be selected using
+ * {@link #withParserEngine(ParserEngine)}. It accepts the same grammar and
+ * builds the same syntax tree, but avoids the overhead of the parser library.
+ * The scanner is available for the default format types only. Patterns using
+ * other format types are parsed by the {@link PatternParser}.
+ * 
+ * <p>
+ * <b>Bytecode Compilation</b> <br>
+ * Compiled messages are formatted by walking the syntax tree. Bytecode
+ * compilation is disabled by default. If a
+ * {@link #withBytecodeCompilationThreshold(int) threshold} is set, the tree of
+ * a message is compiled to a generated class by the
+ * {@link PatternBytecodeCompiler} once the message has been formatted that
+ * many times. The generated code produces the same output as the tree, but
+ * allows the JIT to inline the whole message. Each generated class is defined
+ * in its own class loader, which costs metaspace, so enable compilation only
+ * for applications formatting a bounded set of hot patterns.
+ * 
+ * <p>
+ * <b>Batch Formatting</b> <br>
+ * To format the same pattern for many argument sets, for example for each row
+ * of an export, create a {@link MessageBatch} using
+ * {@link #batch(String, Locale)}. The pattern is parsed and compiled once per
+ * batch, and the messages can optionally be formatted in parallel.
+ * 
+ * <p>
+ * <b>Instrumentation</b> <br>
+ * A {@link MessageFormatListener} can be registered using
+ * {@link #withListener(MessageFormatListener)}. It is notified about cache
+ * hits and misses, parse and format times and failures. Without listener, no
+ * events are created.
  */
 public class MessageFormat {
 
+    /**
+     * If set, parser traces of all instances are written to
+     * {@link System#out}.
+     * 
+     * @deprecated use a {@link MessageFormatListener} to observe parsing and
+     *             formatting per instance
+     */
+    @Deprecated
     public static boolean trace;
 
+    /**
+     * Engines available to parse patterns
+     */
+    public enum ParserEngine {
+        /**
+         * Use the {@link PatternParser}, which is based on a parsing
+         * expression grammar
+         */
+        PEG,
+        /**
+         * Use the {@link PatternScanner}, falling back to the
+         * {@link PatternParser} for format types without scanner
+         */
+        SCANNER
+    }
+
     private final Map<String, Class<? extends FormatTypeParser>> formatTypeParsers;
     private final BiFunction<Object, ? super Locale, Object> argumentPreparationFunction;
+    private final int patternCacheSize;
+    private final ParserEngine parserEngine;
+    private final int bytecodeCompilationThreshold;
+
+    /**
+     * Listener to be notified, null if there is none
+     */
+    private final MessageFormatListener listener;
+
+    /**
+     * Scanners for the format types, if available
+     */
+    private final Map<String, FormatTypeScanner> formatTypeScanners;
+
+    /**
+     * Cache of the parsed patterns, null if caching is disabled
+     */
+    private final Cache<String, CompiledMessage> patternCache;
+
+    /**
+     * Default number of parsed patterns kept in the cache
+     */
+    public static final int DEFAULT_PATTERN_CACHE_SIZE = 1000;
+
+    /**
+     * Default number of formatting runs after which a message is compiled to
+     * bytecode. Zero, thus compilation is disabled by default.
+     */
+    public static final int DEFAULT_BYTECODE_COMPILATION_THRESHOLD = 0;
+
+    /**
+     * Default argument preparation function, leaving the arguments unchanged
+     */
+    private static final BiFunction<Object, Locale, Object> NO_PREPARATION = (
+            a, b) -> a;
 
     public MessageFormat() {
-        this(defaultFormatTypeParsers(), (a, b) -> a);
+        this(defaultFormatTypeParsers(), NO_PREPARATION,
+                DEFAULT_PATTERN_CACHE_SIZE, ParserEngine.PEG,
+                DEFAULT_BYTECODE_COMPILATION_THRESHOLD, null);
     }
 
     private MessageFormat(
             Map<String, Class<? extends FormatTypeParser>> formatTypeParsers,
-            BiFunction<Object, ? super Locale, Object> argumentPreparationFunction) {
+            BiFunction<Object, ? super Locale, Object> argumentPreparationFunction,
+            int patternCacheSize, ParserEngine parserEngine,
+            int bytecodeCompilationThreshold, MessageFormatListener listener) {
+        if (patternCacheSize < 0)
+            throw new IllegalArgumentException(
+                    "Pattern cache size may not be negative: "
+                            + patternCacheSize);
         this.formatTypeParsers = new HashMap<>(formatTypeParsers);
         this.argumentPreparationFunction = argumentPreparationFunction;
+        this.patternCacheSize = patternCacheSize;
+        this.parserEngine = parserEngine;
+        if (bytecodeCompilationThreshold < 0)
+            throw new IllegalArgumentException(
+                    "Bytecode compilation threshold may not be negative: "
+                            + bytecodeCompilationThreshold);
+        this.bytecodeCompilationThreshold = bytecodeCompilationThreshold;
+        this.listener = listener;
+
+        formatTypeScanners = new HashMap<>();
+        Map<Class<? extends FormatTypeParser>, FormatTypeScanner> scanners = defaultFormatTypeScanners();
+        for (Entry<String, Class<? extends FormatTypeParser>> entry : formatTypeParsers
+                .entrySet()) {
+            FormatTypeScanner scanner = scanners.get(entry.getValue());
+            if (scanner != null)
+                formatTypeScanners.put(entry.getKey(), scanner);
+        }
+
+        if (patternCacheSize > 0)
+            patternCache = CacheBuilder.newBuilder()
+                    .maximumSize(patternCacheSize).recordStats().build();
+        else
+            patternCache = null;
     }
 
     /**
@@ -345,7 +494,8 @@ public class MessageFormat {
     public MessageFormat withFormatTypeParsers(
             Map<String, Class<? extends FormatTypeParser>> formatTypeParsers) {
         return new MessageFormat(new HashMap<>(formatTypeParsers),
-                argumentPreparationFunction);
+                argumentPreparationFunction, patternCacheSize, parserEngine,
+                bytecodeCompilationThreshold, listener);
     }
 
     /**
@@ -353,11 +503,180 @@ public class MessageFormat {
      */
     public MessageFormat withArgumentPreparationFunction(
             BiFunction<Object, ? super Locale, Object> function) {
-        return new MessageFormat(formatTypeParsers, function);
+        return new MessageFormat(formatTypeParsers, function,
+                patternCacheSize, parserEngine, bytecodeCompilationThreshold,
+                listener);
+    }
+
+    /**
+     * Create a new instance with the given maximum number of parsed patterns to
+     * cache. A size of zero disables caching. The new instance starts with an
+     * empty cache.
+     */
+    public MessageFormat withPatternCacheSize(int size) {
+        return new MessageFormat(formatTypeParsers,
+                argumentPreparationFunction, size, parserEngine,
+                bytecodeCompilationThreshold, listener);
+    }
+
+    public int getPatternCacheSize() {
+        return patternCacheSize;
+    }
+
+    /**
+     * Create a new instance using the given engine to parse patterns
+     */
+    public MessageFormat withParserEngine(ParserEngine engine) {
+        return new MessageFormat(formatTypeParsers,
+                argumentPreparationFunction, patternCacheSize, engine,
+                bytecodeCompilationThreshold, listener);
+    }
+
+    public ParserEngine getParserEngine() {
+        return parserEngine;
+    }
+
+    /**
+     * Create a new instance compiling messages to bytecode after they have
+     * been formatted the given number of times. A threshold of zero, the
+     * default, disables bytecode compilation.
+     */
+    public MessageFormat withBytecodeCompilationThreshold(int threshold) {
+        return new MessageFormat(formatTypeParsers,
+                argumentPreparationFunction, patternCacheSize, parserEngine,
+                threshold, listener);
+    }
+
+    public int getBytecodeCompilationThreshold() {
+        return bytecodeCompilationThreshold;
+    }
+
+    /**
+     * Create a new instance notifying the given listener about parsing and
+     * formatting. Pass null to remove the listener. The new instance starts
+     * with an empty cache.
+     */
+    public MessageFormat withListener(MessageFormatListener listener) {
+        return new MessageFormat(formatTypeParsers,
+                argumentPreparationFunction, patternCacheSize, parserEngine,
+                bytecodeCompilationThreshold, listener);
+    }
+
+    /**
+     * The registered listener, or null if there is none
+     */
+    public MessageFormatListener getListener() {
+        return listener;
+    }
+
+    /**
+     * Return the statistics of the pattern cache. If caching is disabled, all
+     * counts are zero.
+     */
+    public CacheStats getPatternCacheStats() {
+        if (patternCache == null)
+            return new CacheStats(0, 0, 0, 0, 0, 0);
+        return patternCache.stats();
     }
 
     public String format(String pattern, Map<String, Object> arguments,
             Locale locale) {
+        return compile(pattern).format(arguments, locale);
+    }
+
+    /**
+     * Format the given pattern, appending the result to the given builder
+     */
+    public void formatTo(String pattern, Map<String, Object> arguments,
+            Locale locale, StringBuilder sb) {
+        compile(pattern).formatTo(arguments, locale, sb);
+    }
+
+    /**
+     * Create a batch to format the given pattern many times in the given
+     * locale. The pattern is parsed only once per batch.
+     *
+     * @throws RuntimeException
+     *             if the pattern cannot be parsed
+     */
+    public MessageBatch batch(String pattern, Locale locale) {
+        return compile(pattern).batch(locale);
+    }
+
+    /**
+     * Parse the given pattern. The returned message can be formatted any
+     * number of times and is safe to be shared between threads. If the pattern
+     * cache is enabled, the compiled message is taken from or added to the
+     * cache.
+     * 
+     * <p>
+     * Since all parse errors are raised here, this method can be used to
+     * validate patterns ahead of time.
+     * 
+     * @throws RuntimeException
+     *             if the pattern cannot be parsed
+     */
+    public CompiledMessage compile(String pattern) {
+        if (patternCache == null)
+            return compileUncached(pattern);
+        if (listener == null)
+            return getCached(pattern, () -> compileUncached(pattern));
+        boolean[] parsed = { false };
+        CompiledMessage message = getCached(pattern, () -> {
+            parsed[0] = true;
+            listener.cacheMiss(pattern);
+            return compileUncached(pattern);
+        });
+        if (!parsed[0])
+            listener.cacheHit(pattern);
+        return message;
+    }
+
+    /**
+     * Get a message from the pattern cache, compiling it using the loader if
+     * it is missing. Concurrent requests for the same pattern wait for a
+     * single compilation. Exceptions of the loader are rethrown unwrapped.
+     */
+    private CompiledMessage getCached(String pattern,
+            Callable<CompiledMessage> loader) {
+        try {
+            return patternCache.get(pattern, loader);
+        } catch (ExecutionException | UncheckedExecutionException
+                | ExecutionError e) {
+            Throwables.propagateIfPossible(e.getCause());
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private CompiledMessage compileUncached(String pattern) {
+        PatternNode node;
+        if (listener == null)
+            node = parse(pattern);
+        else {
+            long start = System.nanoTime();
+            try {
+                node = parse(pattern);
+            } catch (RuntimeException e) {
+                listener.parseFailed(pattern, e);
+                throw e;
+            }
+            listener.patternParsed(pattern, System.nanoTime() - start);
+        }
+        return new CompiledMessage(pattern, node, ArgumentSlots.bind(node),
+                argumentPreparationFunction == NO_PREPARATION ? null
+                        : argumentPreparationFunction,
+                bytecodeCompilationThreshold, listener);
+    }
+
+    private PatternNode parse(String pattern) {
+        if (parserEngine == ParserEngine.SCANNER) {
+            try {
+                return new PatternScanner(pattern, formatTypeScanners,
+                        formatTypeParsers.keySet()).fullPattern();
+            } catch (UnsupportedFormatTypeException e) {
+                // fall back to the parser
+            }
+        }
         DefaultParsingContext ctx = new DefaultParsingContext(pattern);
         if (trace) {
             new Tracer(ctx, System.out);
@@ -373,15 +692,7 @@ public class MessageFormat {
                             tmp.setPatternParser(parser);
                             parser.getFormatParsers().put(e.getKey(), tmp);
                         });
-        PatternNode node = parser.fullPattern();
-        FormattingContext fCtx = new FormattingContext(locale, arguments
-                .entrySet()
-                .stream()
-                .collect(
-                        toMap(e -> e.getKey(),
-                                e -> argumentPreparationFunction.apply(
-                                        e.getValue(), locale))));
-        return node.format(fCtx);
+        return parser.fullPattern();
     }
 
     /**
@@ -397,4 +708,19 @@ public class MessageFormat {
         result.put("dateTime", DateTimeParser.class);
         return result;
     }
+
+    /**
+     * Return the scanners equivalent to the default format type parsers, keyed
+     * by parser class.
+     */
+    private static Map<Class<? extends FormatTypeParser>, FormatTypeScanner> defaultFormatTypeScanners() {
+        HashMap<Class<? extends FormatTypeParser>, FormatTypeScanner> result = new HashMap<>();
+        result.put(PluralParser.class, PluralParser.SCANNER);
+        result.put(NumberParser.class, NumberParser.SCANNER);
+        result.put(DateParser.class, DateParser.SCANNER);
+        result.put(TimeParser.class, TimeParser.SCANNER);
+        result.put(DateTimePatternParser.class, DateTimePatternParser.SCANNER);
+        result.put(DateTimeParser.class, DateTimeParser.SCANNER);
+        return result;
+    }
 }
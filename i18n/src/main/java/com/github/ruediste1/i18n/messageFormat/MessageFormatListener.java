@@ -0,0 +1,66 @@
+package com.github.ruediste1.i18n.messageFormat;
+
+import java.util.Locale;
+
+/**
+ * Receives events about parsing and formatting from a {@link MessageFormat}.
+ * Register a listener using {@link MessageFormat#withListener(MessageFormatListener)}.
+ *
+ * <p>
+ * All methods do nothing by default. The methods are called on the thread
+ * doing the parsing or formatting, thus implementations have to be thread safe
+ * and fast. If no listener is registered, no events are created at all.
+ *
+ * <p>
+ * Durations are measured using {@link System#nanoTime()}.
+ */
+public interface MessageFormatListener {
+
+    /**
+     * A compiled pattern was found in the pattern cache. Not called if the
+     * pattern cache is disabled.
+     */
+    default void cacheHit(String pattern) {
+    }
+
+    /**
+     * A pattern was not found in the pattern cache. The pattern will be
+     * parsed. Not called if the pattern cache is disabled.
+     */
+    default void cacheMiss(String pattern) {
+    }
+
+    /**
+     * A pattern has been parsed successfully
+     */
+    default void patternParsed(String pattern, long nanos) {
+    }
+
+    /**
+     * Parsing a pattern failed. The exception is thrown to the caller after
+     * this method returns.
+     */
+    default void parseFailed(String pattern, RuntimeException exception) {
+    }
+
+    /**
+     * Compiling a pattern to bytecode failed. The message is not compiled
+     * again and keeps being formatted by interpreting the syntax tree.
+     */
+    default void compilationFailed(String pattern, RuntimeException exception) {
+    }
+
+    /**
+     * A message has been formatted
+     */
+    default void messageFormatted(String pattern, Locale locale, long nanos) {
+    }
+
+    /**
+     * Formatting a message failed. The exception is thrown to the caller after
+     * this method returns.
+     */
+    default void formatFailed(String pattern, Locale locale,
+            RuntimeException exception) {
+    }
+}
@@ -0,0 +1,132 @@
+package com.github.ruediste1.i18n.messageFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import com.github.ruediste1.i18n.messageFormat.ast.PatternNode;
+
+/**
+ * Flattened form of a syntax tree used to stream formatted messages. The tree
+ * is split into literal segments and nodes. Literals are encoded to UTF-8 up
+ * front, thus only the output of the nodes has to be encoded while
+ * formatting.
+ */
+final class MessageSegments {
+
+    private static final class Literal {
+        final String text;
+        final byte[] utf8;
+
+        Literal(String text) {
+            this.text = text;
+            utf8 = text.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * The segments, either {@link Literal}s or {@link PatternNode}s
+     */
+    private final Object[] segments;
+
+    MessageSegments(PatternNode node) {
+        List<Object> elements = PatternBytecodeCompiler.flatten(node);
+        segments = new Object[elements.size()];
+        for (int i = 0; i < segments.length; i++) {
+            Object element = elements.get(i);
+            segments[i] = element instanceof String ? new Literal(
+                    (String) element) : element;
+        }
+    }
+
+    void writeTo(FormattingContext ctx, Writer writer) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (Object segment : segments) {
+            if (segment instanceof Literal) {
+                writer.write(((Literal) segment).text);
+            } else {
+                sb.setLength(0);
+                ((PatternNode) segment).formatTo(ctx, sb);
+                writer.append(sb);
+            }
+        }
+    }
+
+    void writeTo(FormattingContext ctx, OutputStream out) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        byte[] buffer = new byte[0];
+        for (Object segment : segments) {
+            if (segment instanceof Literal) {
+                out.write(((Literal) segment).utf8);
+            } else {
+                sb.setLength(0);
+                ((PatternNode) segment).formatTo(ctx, sb);
+                buffer = ensureCapacity(buffer, sb);
+                out.write(buffer, 0, encodeUtf8(sb, buffer));
+            }
+        }
+    }
+
+    void writeTo(FormattingContext ctx, ByteBuffer target) {
+        StringBuilder sb = new StringBuilder();
+        byte[] buffer = new byte[0];
+        for (Object segment : segments) {
+            if (segment instanceof Literal) {
+                target.put(((Literal) segment).utf8);
+            } else {
+                sb.setLength(0);
+                ((PatternNode) segment).formatTo(ctx, sb);
+                buffer = ensureCapacity(buffer, sb);
+                target.put(buffer, 0, encodeUtf8(sb, buffer));
+            }
+        }
+    }
+
+    private static byte[] ensureCapacity(byte[] buffer, CharSequence chars) {
+        int required = chars.length() * 3;
+        if (buffer.length >= required)
+            return buffer;
+        return new byte[Math.max(required, buffer.length * 2)];
+    }
+
+    /**
+     * Encode the characters to UTF-8. Unpaired surrogates are replaced by
+     * '?', like {@link String#getBytes(java.nio.charset.Charset)} does.
+     *
+     * @param target
+     *            buffer with room for at least three bytes per character
+     * @return number of bytes written
+     */
+    static int encodeUtf8(CharSequence chars, byte[] target) {
+        int pos = 0;
+        int length = chars.length();
+        for (int i = 0; i < length; i++) {
+            char c = chars.charAt(i);
+            if (c < 0x80) {
+                target[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                target[pos++] = (byte) (0xC0 | (c >> 6));
+                target[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(chars.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, chars.charAt(++i));
+                    target[pos++] = (byte) (0xF0 | (cp >> 18));
+                    target[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                    target[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                    target[pos++] = (byte) (0x80 | (cp & 0x3F));
+                } else {
+                    target[pos++] = '?';
+                }
+            } else {
+                target[pos++] = (byte) (0xE0 | (c >> 12));
+                target[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                target[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return pos;
+    }
+}
@@ -0,0 +1,289 @@
+package com.github.ruediste1.i18n.messageFormat;
+
+import static org.objectweb.asm.Opcodes.AALOAD;
+import static org.objectweb.asm.Opcodes.ACC_FINAL;
+import static org.objectweb.asm.Opcodes.ACC_PRIVATE;
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.ACC_SUPER;
+import static org.objectweb.asm.Opcodes.ACC_SYNTHETIC;
+import static org.objectweb.asm.Opcodes.ALOAD;
+import static org.objectweb.asm.Opcodes.GETFIELD;
+import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
+import static org.objectweb.asm.Opcodes.INVOKESTATIC;
+import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
+import static org.objectweb.asm.Opcodes.POP;
+import static org.objectweb.asm.Opcodes.PUTFIELD;
+import static org.objectweb.asm.Opcodes.RETURN;
+import static org.objectweb.asm.Opcodes.V1_8;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import com.github.ruediste1.i18n.messageFormat.ast.LiteralNode;
+import com.github.ruediste1.i18n.messageFormat.ast.PatternNode;
+import com.github.ruediste1.i18n.messageFormat.ast.SequenceNode;
+import com.github.ruediste1.i18n.messageFormat.ast.SimpleArgumentNode;
+
+/**
+ * Compiles a syntax tree to a generated {@link PatternNode} class.
+ *
+ * <p>
+ * The tree is flattened: nested {@link SequenceNode}s are inlined and adjacent
+ * literals merged. The generated
+ * {@link PatternNode#formatTo(FormattingContext, StringBuilder) formatTo()}
+ * method consists of straight line code, appending the literals as constants
+ * and reading and appending the arguments of {@link SimpleArgumentNode}s
+ * directly. All other nodes are called through a field of the generated class.
+ * Since each generated class has its own call sites, these calls are
+ * monomorphic and can be inlined by the JIT.
+ *
+ * <p>
+ * Each generated class is defined in its own class loader, allowing it to be
+ * unloaded together with the {@link CompiledMessage} it belongs to.
+ */
+public final class PatternBytecodeCompiler {
+
+    /**
+     * Maximum number of elements of a flattened pattern. Larger patterns would
+     * risk exceeding the maximum method size and are not compiled.
+     */
+    private static final int MAX_ELEMENTS = 2000;
+
+    /**
+     * Maximum length of a single string constant. Constants are limited to
+     * 65535 bytes in modified UTF-8, which needs at most three bytes per
+     * character.
+     */
+    private static final int MAX_CONSTANT_LENGTH = 16384;
+
+    private static final AtomicLong classCounter = new AtomicLong();
+
+    private static final String NODE = Type.getInternalName(PatternNode.class);
+    private static final String BASE = Type
+            .getInternalName(GeneratedNode.class);
+    private static final String CTX = Type
+            .getInternalName(FormattingContext.class);
+    private static final String SB = Type.getInternalName(StringBuilder.class);
+
+    private PatternBytecodeCompiler() {
+    }
+
+    /**
+     * Base class of the generated nodes. The argument names and the slot
+     * binding are delegated to the original tree.
+     */
+    public static abstract class GeneratedNode extends PatternNode {
+        private final PatternNode original;
+
+        protected GeneratedNode(PatternNode original) {
+            this.original = original;
+        }
+
+        /**
+         * The tree this node has been compiled from
+         */
+        public PatternNode getOriginal() {
+            return original;
+        }
+
+        /**
+         * Generated classes are final, thus the generated
+         * {@link #formatTo(FormattingContext, StringBuilder)} is used
+         */
+        @Override
+        public String format(FormattingContext ctx) {
+            StringBuilder sb = new StringBuilder();
+            formatTo(ctx, sb);
+            return sb.toString();
+        }
+
+        @Override
+        public Set<String> argumentNames() {
+            return original.argumentNames();
+        }
+
+        @Override
+        public void bindSlots(ArgumentSlots slots) {
+            original.bindSlots(slots);
+        }
+    }
+
+    private static class GeneratedClassLoader extends ClassLoader {
+        GeneratedClassLoader() {
+            super(PatternNode.class.getClassLoader());
+        }
+
+        Class<?> define(String name, byte[] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+
+    /**
+     * Compile the given tree, which has to be bound to its slots already. The
+     * result formats exactly like the tree.
+     *
+     * @throws RuntimeException
+     *             if the tree cannot be compiled
+     */
+    public static PatternNode compile(PatternNode node) {
+        List<Object> elements = flatten(node);
+        if (elements.size() > MAX_ELEMENTS)
+            throw new RuntimeException("Pattern has too many elements ("
+                    + elements.size() + ") to be compiled");
+
+        List<PatternNode> fieldNodes = new ArrayList<>();
+        for (Object element : elements) {
+            if (element instanceof PatternNode && !isInlinedArgument(element))
+                fieldNodes.add((PatternNode) element);
+        }
+
+        // use a separate package, the generated classes are defined in their
+        // own class loaders anyways
+        String name = PatternBytecodeCompiler.class.getPackage().getName()
+                + ".generated.Pattern" + classCounter.incrementAndGet();
+        byte[] bytes = generate(name.replace('.', '/'), elements,
+                fieldNodes.size());
+        try {
+            return (PatternNode) new GeneratedClassLoader()
+                    .define(name, bytes)
+                    .getConstructor(PatternNode.class, PatternNode[].class)
+                    .newInstance(node,
+                            fieldNodes.toArray(new PatternNode[] {}));
+        } catch (Exception | LinkageError e) {
+            throw new RuntimeException("Error while compiling pattern", e);
+        }
+    }
+
+    /**
+     * Flatten the given tree to a list of elements. Elements are either
+     * strings, holding merged literals, or nodes. Nested {@link SequenceNode}s
+     * are inlined. Literal nodes which may be subclassed are only inlined if
+     * their exact class is known.
+     */
+    static List<Object> flatten(PatternNode node) {
+        List<Object> elements = new ArrayList<>();
+        flatten(node, elements);
+        return elements;
+    }
+
+    private static void flatten(PatternNode node, List<Object> elements) {
+        if (node instanceof SequenceNode) {
+            for (PatternNode child : ((SequenceNode) node).getNodes()) {
+                flatten(child, elements);
+            }
+        } else if (node.getClass() == LiteralNode.class) {
+            String literal = ((LiteralNode) node).getLiteral();
+            if (!literal.isEmpty()) {
+                if (elements.isEmpty()
+                        || !(elements.get(elements.size() - 1) instanceof String))
+                    elements.add(literal);
+                else
+                    elements.set(elements.size() - 1,
+                            elements.get(elements.size() - 1) + literal);
+            }
+        } else {
+            elements.add(node);
+        }
+    }
+
+    /**
+     * Determine if the argument of the element is read and appended directly.
+     * Subclasses of {@link SimpleArgumentNode} might override the formatting,
+     * thus only the exact class is inlined.
+     */
+    private static boolean isInlinedArgument(Object element) {
+        return element.getClass() == SimpleArgumentNode.class;
+    }
+
+    private static byte[] generate(String internalName, List<Object> elements,
+            int fieldCount) {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(V1_8, ACC_PUBLIC | ACC_FINAL | ACC_SUPER | ACC_SYNTHETIC,
+                internalName, null, BASE, null);
+        for (int i = 0; i < fieldCount; i++) {
+            cw.visitField(ACC_PRIVATE | ACC_FINAL, "n" + i, "L" + NODE + ";",
+                    null, null).visitEnd();
+        }
+
+        // constructor
+        {
+            MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "(L"
+                    + NODE + ";[L" + NODE + ";)V", null, null);
+            mv.visitCode();
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitMethodInsn(INVOKESPECIAL, BASE, "<init>", "(L" + NODE
+                    + ";)V", false);
+            for (int i = 0; i < fieldCount; i++) {
+                mv.visitVarInsn(ALOAD, 0);
+                mv.visitVarInsn(ALOAD, 2);
+                mv.visitLdcInsn(i);
+                mv.visitInsn(AALOAD);
+                mv.visitFieldInsn(PUTFIELD, internalName, "n" + i, "L" + NODE
+                        + ";");
+            }
+            mv.visitInsn(RETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+
+        // formatTo
+        {
+            MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "formatTo", "(L"
+                    + CTX + ";L" + SB + ";)V", null, null);
+            mv.visitCode();
+            int field = 0;
+            for (Object element : elements) {
+                if (element instanceof String) {
+                    String literal = (String) element;
+                    for (int start = 0; start < literal.length(); start += MAX_CONSTANT_LENGTH) {
+                        mv.visitVarInsn(ALOAD, 2);
+                        mv.visitLdcInsn(literal.substring(start, Math.min(
+                                literal.length(), start + MAX_CONSTANT_LENGTH)));
+                        mv.visitMethodInsn(INVOKEVIRTUAL, SB, "append",
+                                "(Ljava/lang/String;)L" + SB + ";", false);
+                        mv.visitInsn(POP);
+                    }
+                } else if (isInlinedArgument(element)) {
+                    SimpleArgumentNode argNode = (SimpleArgumentNode) element;
+                    mv.visitVarInsn(ALOAD, 1);
+                    mv.visitLdcInsn(argNode.getSlot());
+                    mv.visitLdcInsn(argNode.getArgumentName());
+                    mv.visitMethodInsn(INVOKEVIRTUAL, CTX, "getArgument",
+                            "(ILjava/lang/String;)Ljava/lang/Object;", false);
+                    mv.visitVarInsn(ALOAD, 1);
+                    mv.visitMethodInsn(INVOKEVIRTUAL, CTX, "getLocale",
+                            "()" + Type.getDescriptor(Locale.class), false);
+                    mv.visitVarInsn(ALOAD, 2);
+                    mv.visitMethodInsn(
+                            INVOKESTATIC,
+                            Type.getInternalName(SimpleArgumentNode.class),
+                            "appendArgument",
+                            "(Ljava/lang/Object;"
+                                    + Type.getDescriptor(Locale.class) + "L"
+                                    + SB + ";)V", false);
+                } else {
+                    mv.visitVarInsn(ALOAD, 0);
+                    mv.visitFieldInsn(GETFIELD, internalName, "n" + field++,
+                            "L" + NODE + ";");
+                    mv.visitVarInsn(ALOAD, 1);
+                    mv.visitVarInsn(ALOAD, 2);
+                    mv.visitMethodInsn(INVOKEVIRTUAL, NODE, "formatTo", "(L"
+                            + CTX + ";L" + SB + ";)V", false);
+                }
+            }
+            mv.visitInsn(RETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+}
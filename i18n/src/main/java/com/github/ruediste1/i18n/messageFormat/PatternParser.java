@@ -4,15 +4,13 @@ import static java.util.stream.Collectors.joining;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Objects;
 import java.util.function.Supplier;
 
 import com.github.ruediste.lambdaPegParser.DefaultParser;
 import com.github.ruediste.lambdaPegParser.DefaultParsingContext;
-import com.github.ruediste1.i18n.lString.LString;
-import com.github.ruediste1.i18n.messageFormat.ast.ArgumentNode;
 import com.github.ruediste1.i18n.messageFormat.ast.PatternNode;
 import com.github.ruediste1.i18n.messageFormat.ast.SequenceNode;
+import com.github.ruediste1.i18n.messageFormat.ast.SimpleArgumentNode;
 import com.github.ruediste1.i18n.messageFormat.formatTypeParsers.FormatTypeParser;
 
 public class PatternParser extends DefaultParser {
@@ -91,16 +89,7 @@ public class PatternParser extends DefaultParser {
 
 		PatternNode result;
 		if (type == null) {
-			result = new ArgumentNode(argumentName) {
-				@Override
-				public String format(FormattingContext ctx) {
-					Object arg = ctx.getArgument(argumentName);
-					if (arg instanceof LString)
-					    return ((LString) arg).resolve(ctx.getLocale());
-					else
-					    return Objects.toString(arg);
-				}
-			};
+			result = new SimpleArgumentNode(argumentName);
 		} else {
 			FormatTypeParser parser = formatParsers.get(type);
 			if (parser == null) {
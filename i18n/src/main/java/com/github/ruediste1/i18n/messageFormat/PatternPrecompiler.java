@@ -0,0 +1,247 @@
+package com.github.ruediste1.i18n.messageFormat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+
+import com.github.ruediste1.i18n.lString.DefaultResourceBundleResolver;
+import com.github.ruediste1.i18n.lString.ResourceBundleResolver;
+
+/**
+ * Parses all patterns of a resource bundle ahead of time, typically during
+ * application startup. The patterns are compiled using
+ * {@link MessageFormat#compile(String)}, thus they end up in the same pattern
+ * cache used when formatting. The pattern cache has to be large enough to hold
+ * all distinct patterns, otherwise precompilation fails right away instead of
+ * evicting its own results (see {@link MessageFormat#withPatternCacheSize(int)}).
+ *
+ * <p>
+ * Patterns which fail to parse are reported in the returned
+ * {@link PrecompilationResult}. Note that resource bundles might contain
+ * values which are not used as patterns.
+ */
+public class PatternPrecompiler {
+
+    /**
+     * Number of chunks the patterns are split into per thread of the pool,
+     * to balance the load if some chunks take longer than others
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final MessageFormat format;
+
+    public PatternPrecompiler(MessageFormat format) {
+        this.format = format;
+    }
+
+    /**
+     * A pattern which could not be parsed
+     */
+    public static class Failure {
+        private final Locale locale;
+        private final String key;
+        private final String pattern;
+        private final RuntimeException exception;
+
+        public Failure(Locale locale, String key, String pattern,
+                RuntimeException exception) {
+            this.locale = locale;
+            this.key = key;
+            this.pattern = pattern;
+            this.exception = exception;
+        }
+
+        public Locale getLocale() {
+            return locale;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getPattern() {
+            return pattern;
+        }
+
+        public RuntimeException getException() {
+            return exception;
+        }
+
+        @Override
+        public String toString() {
+            return locale + ": " + key + "=" + pattern + ": "
+                    + exception.getMessage();
+        }
+    }
+
+    /**
+     * Outcome of a precompilation run
+     */
+    public static class PrecompilationResult {
+        private final Duration duration;
+        private final int patternCount;
+        private final List<Failure> failures;
+
+        public PrecompilationResult(Duration duration, int patternCount,
+                List<Failure> failures) {
+            this.duration = duration;
+            this.patternCount = patternCount;
+            this.failures = Collections.unmodifiableList(failures);
+        }
+
+        /**
+         * Wall clock time the precompilation took
+         */
+        public Duration getDuration() {
+            return duration;
+        }
+
+        /**
+         * Number of patterns processed, counting each key once per locale
+         */
+        public int getPatternCount() {
+            return patternCount;
+        }
+
+        public List<Failure> getFailures() {
+            return failures;
+        }
+
+        @Override
+        public String toString() {
+            return "Precompiled " + patternCount + " patterns in " + duration
+                    + ", " + failures.size() + " failures";
+        }
+    }
+
+    private static class Entry {
+        final Locale locale;
+        final String key;
+        final String pattern;
+
+        Entry(Locale locale, String key, String pattern) {
+            this.locale = locale;
+            this.key = key;
+            this.pattern = pattern;
+        }
+    }
+
+    /**
+     * Precompile all patterns of the resource bundle with the given base name,
+     * loaded using a {@link DefaultResourceBundleResolver}, on the common
+     * fork join pool
+     */
+    public PrecompilationResult precompile(String baseName,
+            Collection<Locale> locales) {
+        DefaultResourceBundleResolver resolver = new DefaultResourceBundleResolver();
+        resolver.initialize(baseName);
+        return precompile(resolver, locales);
+    }
+
+    /**
+     * Precompile all patterns of the resource bundles of the given locales on
+     * the common fork join pool
+     */
+    public PrecompilationResult precompile(ResourceBundleResolver resolver,
+            Collection<Locale> locales) {
+        return precompile(resolver, locales, key -> true,
+                ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Precompile the patterns of the resource bundles of the given locales
+     *
+     * @param keyFilter
+     *            only keys matching the filter are precompiled
+     * @param pool
+     *            pool to parse the patterns in. The patterns are split into
+     *            chunks, each submitted to the pool as a separate task.
+     * @throws IllegalArgumentException
+     *             if the pattern cache of the {@link MessageFormat} cannot
+     *             hold all distinct patterns
+     */
+    public PrecompilationResult precompile(ResourceBundleResolver resolver,
+            Collection<Locale> locales, Predicate<String> keyFilter,
+            ForkJoinPool pool) {
+        long start = System.nanoTime();
+
+        List<Entry> entries = new ArrayList<>();
+        for (Locale locale : locales) {
+            ResourceBundle bundle = resolver.getResourceBundle(locale);
+            for (String key : bundle.keySet()) {
+                if (!keyFilter.test(key))
+                    continue;
+                Object value = bundle.getObject(key);
+                if (value instanceof String)
+                    entries.add(new Entry(locale, key, (String) value));
+            }
+        }
+
+        checkCacheSize(entries);
+
+        Queue<Failure> failures = new ConcurrentLinkedQueue<>();
+        List<Callable<Void>> tasks = new ArrayList<>();
+        int chunkSize = Math.max(1, entries.size()
+                / (pool.getParallelism() * CHUNKS_PER_THREAD));
+        for (int i = 0; i < entries.size(); i += chunkSize) {
+            List<Entry> chunk = entries.subList(i,
+                    Math.min(i + chunkSize, entries.size()));
+            tasks.add(() -> {
+                for (Entry entry : chunk) {
+                    try {
+                        format.compile(entry.pattern);
+                    } catch (RuntimeException e) {
+                        failures.add(new Failure(entry.locale, entry.key,
+                                entry.pattern, e));
+                    }
+                }
+                return null;
+            });
+        }
+
+        try {
+            for (Future<Void> future : pool.invokeAll(tasks))
+                future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while precompiling", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Error while precompiling",
+                    e.getCause());
+        }
+
+        return new PrecompilationResult(Duration.ofNanos(System.nanoTime()
+                - start), entries.size(), new ArrayList<>(failures));
+    }
+
+    /**
+     * Make sure the pattern cache can hold the patterns of all entries.
+     * Patterns shared by several locales, such as those of the root bundle,
+     * are counted once.
+     */
+    private void checkCacheSize(List<Entry> entries) {
+        if (entries.size() <= format.getPatternCacheSize())
+            return;
+        Set<String> patterns = new HashSet<>();
+        for (Entry entry : entries)
+            patterns.add(entry.pattern);
+        if (patterns.size() > format.getPatternCacheSize())
+            throw new IllegalArgumentException("The pattern cache size of "
+                    + format.getPatternCacheSize() + " is too small to hold "
+                    + patterns.size()
+                    + " patterns. Increase it using withPatternCacheSize()");
+    }
+}
@@ -0,0 +1,354 @@
+package com.github.ruediste1.i18n.messageFormat;
+
+import static java.util.stream.Collectors.joining;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
+import com.github.ruediste1.i18n.messageFormat.ast.LiteralNode;
+import com.github.ruediste1.i18n.messageFormat.ast.PatternNode;
+import com.github.ruediste1.i18n.messageFormat.ast.SequenceNode;
+import com.github.ruediste1.i18n.messageFormat.ast.SimpleArgumentNode;
+import com.github.ruediste1.i18n.messageFormat.formatTypeParsers.FormatTypeParser;
+import com.github.ruediste1.i18n.messageFormat.formatTypeParsers.FormatTypeScanner;
+import com.github.ruediste1.i18n.messageFormat.formatTypeParsers.PluralParser.HashNode;
+
+/**
+ * Hand written, single pass alternative to the {@link PatternParser}. Accepts
+ * the same grammar and builds the same syntax tree, but scans literal runs in
+ * bulk instead of matching them character by character.
+ * 
+ * <p>
+ * Where the grammar backtracks, namely when a placeholder does not match and
+ * its opening brace is taken as literal character, the scanner resets its
+ * position as well. Failing rules throw the exception returned by
+ * {@link #mismatch()}, which does not carry a stack trace.
+ * 
+ * <p>
+ * The style part of placeholders is handled by {@link FormatTypeScanner}s. If
+ * a pattern uses a format type which is registered, but for which no scanner
+ * is available, an {@link UnsupportedFormatTypeException} is raised, allowing
+ * the caller to fall back to the {@link PatternParser}.
+ */
+public class PatternScanner {
+
+    /**
+     * Raised if a pattern contains a format type without
+     * {@link FormatTypeScanner}
+     */
+    public static class UnsupportedFormatTypeException extends
+            RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public UnsupportedFormatTypeException(String type) {
+            super("No scanner available for format type <" + type + ">");
+        }
+    }
+
+    private static class Mismatch extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        Mismatch() {
+            super("mismatch", null, false, false);
+        }
+    }
+
+    private static final Mismatch MISMATCH = new Mismatch();
+
+    private final String input;
+    private final int length;
+    private int pos;
+
+    private final Map<String, FormatTypeScanner> formatScanners;
+    private final Set<String> formatTypes;
+
+    /**
+     * @param input
+     *            pattern to scan
+     * @param formatScanners
+     *            the available scanners, keyed by format type
+     * @param formatTypes
+     *            all known format types, including the ones without scanner
+     */
+    public PatternScanner(String input,
+            Map<String, FormatTypeScanner> formatScanners,
+            Set<String> formatTypes) {
+        this.input = input;
+        this.length = input.length();
+        this.formatScanners = formatScanners;
+        this.formatTypes = formatTypes;
+    }
+
+    /**
+     * <pre>
+     * fullPattern = pattern EOI
+     * </pre>
+     */
+    public PatternNode fullPattern() {
+        PatternNode result = pattern(null);
+        if (pos < length) {
+            throw new RuntimeException("Unexpected '" + input.charAt(pos)
+                    + "' at position " + pos + " of pattern <" + input + ">");
+        }
+        return result;
+    }
+
+    /**
+     * <pre>
+     * pattern = ('#' | placeHolder | literalChar)*
+     * </pre>
+     * 
+     * @param hashArgumentName
+     *            if not null, '#' is matched and represents the argument with
+     *            the given name (see {@link HashNode})
+     */
+    public PatternNode pattern(String hashArgumentName) {
+        List<PatternNode> nodes = new ArrayList<>();
+        // start of the literal run not yet added to the nodes
+        int literalStart = pos;
+        // literal collected so far, only used if there are escapes
+        StringBuilder literal = null;
+        while (pos < length) {
+            char ch = input.charAt(pos);
+            if (ch == '}')
+                break;
+            if (ch == '$' && pos + 1 < length) {
+                // drop the escape character, the next character is taken
+                // as-is
+                if (literal == null)
+                    literal = new StringBuilder();
+                literal.append(input, literalStart, pos);
+                literalStart = pos + 1;
+                pos += 2;
+            } else if (ch == '{') {
+                int start = pos;
+                PatternNode placeHolder = tryPlaceHolder();
+                if (placeHolder == null) {
+                    // take the brace as literal
+                    pos = start + 1;
+                } else {
+                    addLiteral(nodes, literal, literalStart, start);
+                    literal = null;
+                    nodes.add(placeHolder);
+                    literalStart = pos;
+                }
+            } else if (ch == '#' && hashArgumentName != null) {
+                addLiteral(nodes, literal, literalStart, pos);
+                literal = null;
+                nodes.add(new HashNode(hashArgumentName));
+                pos++;
+                literalStart = pos;
+            } else
+                pos++;
+        }
+        addLiteral(nodes, literal, literalStart, pos);
+        return new SequenceNode(nodes);
+    }
+
+    private void addLiteral(List<PatternNode> nodes, StringBuilder literal,
+            int start, int end) {
+        String str;
+        if (literal == null) {
+            if (start == end)
+                return;
+            str = input.substring(start, end);
+        } else
+            str = literal.append(input, start, end).toString();
+        if (!str.isEmpty())
+            nodes.add(new LiteralNode(str));
+    }
+
+    /**
+     * Match a placeholder. If it does not match, the position is left
+     * undefined and null is returned.
+     */
+    private PatternNode tryPlaceHolder() {
+        try {
+            return placeHolder();
+        } catch (Mismatch e) {
+            return null;
+        }
+    }
+
+    /**
+     * <pre>
+     * placeHolder = '{' identifier (',' identifier style)? '}'
+     * </pre>
+     */
+    public PatternNode placeHolder() {
+        expect('{');
+        whiteSpace();
+        String argumentName = identifier();
+        whiteSpace();
+        String type = null;
+        if (tryConsume(',')) {
+            whiteSpace();
+            type = identifier();
+            whiteSpace();
+        }
+
+        PatternNode result;
+        if (type == null) {
+            result = new SimpleArgumentNode(argumentName);
+        } else {
+            FormatTypeScanner scanner = formatScanners.get(type);
+            if (scanner == null) {
+                if (formatTypes.contains(type))
+                    throw new UnsupportedFormatTypeException(type);
+                throw new RuntimeException("Unknown format type <" + type
+                        + "> known types: "
+                        + formatTypes.stream().collect(joining(", ")));
+            }
+            result = scanner.style(this, argumentName);
+        }
+        expect('}');
+        return result;
+    }
+
+    /**
+     * <pre>
+     * javaIdentifierStart javaIdentifierPart*
+     * </pre>
+     */
+    public String identifier() {
+        int start = pos;
+        if (pos >= length
+                || !Character.isJavaIdentifierStart(input.codePointAt(pos)))
+            throw MISMATCH;
+        pos += Character.charCount(input.codePointAt(pos));
+        skip(Character::isJavaIdentifierPart);
+        String result = input.substring(start, pos);
+        whiteSpace();
+        return result;
+    }
+
+    /**
+     * <pre>
+     * ( "''" | quoted | ./"}' ) +
+     * </pre>
+     * 
+     * where quoted is
+     * 
+     * <pre>
+     * "'" ("''" | ./' )* "'"?
+     * </pre>
+     * 
+     * The quotes are part of the result.
+     */
+    public String subFormatPattern() {
+        int start = pos;
+        while (pos < length) {
+            char ch = input.charAt(pos);
+            if (ch == '}')
+                break;
+            if (ch == '\'') {
+                if (pos + 1 < length && input.charAt(pos + 1) == '\'') {
+                    pos += 2;
+                    continue;
+                }
+                pos++;
+                while (pos < length) {
+                    if (input.charAt(pos) == '\'') {
+                        if (pos + 1 < length && input.charAt(pos + 1) == '\'')
+                            pos += 2;
+                        else
+                            break;
+                    } else
+                        pos++;
+                }
+                // closing quote is optional
+                if (pos < length)
+                    pos++;
+            } else
+                pos++;
+        }
+        if (pos == start)
+            throw MISMATCH;
+        return input.substring(start, pos);
+    }
+
+    public void whiteSpace() {
+        skip(Character::isWhitespace);
+    }
+
+    /**
+     * Match one or more code points fulfilling the predicate
+     */
+    public String oneOrMoreChars(IntPredicate predicate) {
+        int start = pos;
+        skip(predicate);
+        if (pos == start)
+            throw MISMATCH;
+        return input.substring(start, pos);
+    }
+
+    private void skip(IntPredicate predicate) {
+        while (pos < length) {
+            int cp = input.codePointAt(pos);
+            if (!predicate.test(cp))
+                break;
+            pos += Character.charCount(cp);
+        }
+    }
+
+    /**
+     * Consume the given character if it is next in the input
+     * 
+     * @return true if the character has been consumed
+     */
+    public boolean tryConsume(char ch) {
+        if (pos < length && input.charAt(pos) == ch) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Consume the given string if it is next in the input
+     * 
+     * @return true if the string has been consumed
+     */
+    public boolean tryConsume(String str) {
+        if (input.startsWith(str, pos)) {
+            pos += str.length();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Consume the given character, or throw {@link #mismatch()}
+     */
+    public void expect(char ch) {
+        if (!tryConsume(ch))
+            throw MISMATCH;
+    }
+
+    /**
+     * Check if the given character is next in the input, without consuming
+     * it.
+     */
+    public boolean isNext(char ch) {
+        return pos < length && input.charAt(pos) == ch;
+    }
+
+    /**
+     * Exception to be thrown by a rule which does not match. The exception is
+     * shared and carries no stack trace.
+     */
+    public RuntimeException mismatch() {
+        return MISMATCH;
+    }
+
+    public int getPosition() {
+        return pos;
+    }
+
+    public String getInput() {
+        return input;
+    }
+}
@@ -3,10 +3,18 @@ package com.github.ruediste1.i18n.messageFormat.ast;
 import java.util.Collections;
 import java.util.Set;
 
+import com.github.ruediste1.i18n.messageFormat.ArgumentSlots;
+import com.github.ruediste1.i18n.messageFormat.FormattingContext;
+
 public abstract class ArgumentNode extends PatternNode {
 
 	protected String argumentName;
 
+	/**
+	 * Slot of the argument, -1 if not bound
+	 */
+	protected int slot = -1;
+
 	public ArgumentNode(String argumentName) {
 		this.argumentName = argumentName;
 	}
@@ -16,4 +24,29 @@ public abstract class ArgumentNode extends PatternNode {
 		return Collections.singleton(argumentName);
 	}
 
-}
\ No newline at end of file
+	@Override
+	public void bindSlots(ArgumentSlots slots) {
+		slot = slots.getSlot(argumentName);
+		if (slot >= 0)
+			argumentName = slots.getName(slot);
+	}
+
+	public String getArgumentName() {
+		return argumentName;
+	}
+
+	/**
+	 * Slot of the argument, -1 if the node is not bound
+	 */
+	public int getSlot() {
+		return slot;
+	}
+
+	/**
+	 * Read the argument of this node from the context
+	 */
+	protected Object getArgument(FormattingContext ctx) {
+		return ctx.getArgument(slot, argumentName);
+	}
+
+}
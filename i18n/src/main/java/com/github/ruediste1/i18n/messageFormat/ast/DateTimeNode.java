@@ -5,6 +5,9 @@ import java.time.format.DateTimeFormatter;
 import java.time.temporal.TemporalAccessor;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import com.github.ruediste1.i18n.messageFormat.FormattingContext;
 
@@ -12,6 +15,17 @@ public class DateTimeNode extends ArgumentNode {
 
 	private DateTimeFormatter formatter;
 
+	/**
+	 * The formatter bound to the locales used so far. The formatters are
+	 * immutable, thus they can be shared between threads.
+	 */
+	private final ConcurrentMap<Locale, DateTimeFormatter> localizedFormatters = new ConcurrentHashMap<>();
+
+	/**
+	 * Set if a subclass overrides {@link #format(FormattingContext)}
+	 */
+	private final boolean formatOverridden = isFormatOverridden(DateTimeNode.class);
+
 	public DateTimeNode(java.lang.String argumentName,
 			DateTimeFormatter formatter) {
 		super(argumentName);
@@ -19,8 +33,22 @@ public class DateTimeNode extends ArgumentNode {
 	}
 
 	@Override
-	public java.lang.String format(FormattingContext ctx) {
-		Object arg = ctx.getArgument(argumentName);
+	public String format(FormattingContext ctx) {
+		StringBuilder sb = new StringBuilder();
+		append(ctx, sb);
+		return sb.toString();
+	}
+
+	@Override
+	public void formatTo(FormattingContext ctx, StringBuilder sb) {
+		if (formatOverridden)
+			sb.append(format(ctx));
+		else
+			append(ctx, sb);
+	}
+
+	private void append(FormattingContext ctx, StringBuilder sb) {
+		Object arg = getArgument(ctx);
 		TemporalAccessor temporal;
 		if (arg instanceof TemporalAccessor)
 			temporal = (TemporalAccessor) arg;
@@ -34,7 +62,20 @@ public class DateTimeNode extends ArgumentNode {
 		else
 			throw new RuntimeException("Cannot format given Object as Date: "
 					+ arg);
-		return formatter.withLocale(ctx.getLocale()).format(temporal);
+		ctx.<DateTimeNode, DateTimeFormatter> getLocalized(this,
+				DateTimeNode::getFormatter).formatTo(temporal, sb);
+	}
+
+	/**
+	 * Return the formatter bound to the given locale
+	 */
+	protected DateTimeFormatter getFormatter(Locale locale) {
+		DateTimeFormatter result = localizedFormatters.get(locale);
+		if (result == null) {
+			result = localizedFormatters.computeIfAbsent(locale,
+					formatter::withLocale);
+		}
+		return result;
 	}
 
 }
\ No newline at end of file
@@ -10,6 +10,11 @@ public class FormatNode extends ArgumentNode {
 
 	private Function<Locale, ? extends Format> formatFactory;
 
+	/**
+	 * Set if a subclass overrides {@link #format(FormattingContext)}
+	 */
+	private final boolean formatOverridden = isFormatOverridden(FormatNode.class);
+
 	public FormatNode(String argumentName,
 			Function<Locale, ? extends Format> formatFactory) {
 		super(argumentName);
@@ -18,8 +23,24 @@ public class FormatNode extends ArgumentNode {
 
 	@Override
 	public String format(FormattingContext ctx) {
-		Object arg = ctx.getArgument(argumentName);
-		return formatFactory.apply(ctx.getLocale()).format(prepareArg(arg));
+		StringBuilder sb = new StringBuilder();
+		append(ctx, sb);
+		return sb.toString();
+	}
+
+	@Override
+	public void formatTo(FormattingContext ctx, StringBuilder sb) {
+		if (formatOverridden)
+			sb.append(format(ctx));
+		else
+			append(ctx, sb);
+	}
+
+	private void append(FormattingContext ctx, StringBuilder sb) {
+		Object arg = getArgument(ctx);
+		Format format = ctx.getLocalized(formatFactory,
+				(factory, locale) -> factory.apply(locale));
+		sb.append(format.format(prepareArg(arg)));
 	}
 
 	/**
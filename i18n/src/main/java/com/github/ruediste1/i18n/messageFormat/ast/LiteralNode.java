@@ -9,6 +9,11 @@ public class LiteralNode extends PatternNode {
 
 	private final String literal;
 
+	/**
+	 * Set if a subclass overrides {@link #format(FormattingContext)}
+	 */
+	private final boolean formatOverridden = isFormatOverridden(LiteralNode.class);
+
 	public LiteralNode(String literal) {
 		this.literal = literal;
 	}
@@ -18,6 +23,11 @@ public class LiteralNode extends PatternNode {
 		return literal;
 	}
 
+	@Override
+	public void formatTo(FormattingContext ctx, StringBuilder sb) {
+		sb.append(formatOverridden ? format(ctx) : literal);
+	}
+
 	@Override
 	public Set<String> argumentNames() {
 		return Collections.emptySet();
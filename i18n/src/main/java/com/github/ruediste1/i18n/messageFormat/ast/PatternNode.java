@@ -2,13 +2,88 @@ package com.github.ruediste1.i18n.messageFormat.ast;
 
 import java.util.Set;
 
+import com.github.ruediste1.i18n.messageFormat.ArgumentSlots;
 import com.github.ruediste1.i18n.messageFormat.FormattingContext;
 
 /**
  * A node of an abstract syntax tree (ast) a message patterns is parsed to.
+ * 
+ * <p>
+ * Parsed trees are cached and shared between threads. After parsing, a tree
+ * is bound to its argument slots once using {@link #bindSlots(ArgumentSlots)}
+ * by the thread compiling the pattern, before the tree is published. Nodes
+ * must not be modified afterwards.
+ * 
+ * <p>
+ * {@link #format(FormattingContext)} is the contract every node has to
+ * implement. Nodes are formatted using
+ * {@link #formatTo(FormattingContext, StringBuilder)}, which appends the
+ * result of {@link #format(FormattingContext)} by default. The built-in nodes
+ * implement it directly to avoid intermediate strings, but still call
+ * {@link #format(FormattingContext)} if a subclass overrides it. Subclasses
+ * overriding {@link #formatTo(FormattingContext, StringBuilder)} have to keep
+ * {@link #format(FormattingContext)} consistent, since either method might be
+ * used.
  */
 public abstract class PatternNode {
+
+	/**
+	 * Declaring class of {@link #format(FormattingContext)} for each node
+	 * class
+	 */
+	private static final ClassValue<Class<?>> formatDeclaringClass = new ClassValue<Class<?>>() {
+		@Override
+		protected Class<?> computeValue(Class<?> type) {
+			try {
+				return type.getMethod("format", FormattingContext.class)
+						.getDeclaringClass();
+			} catch (NoSuchMethodException e) {
+				throw new RuntimeException(e);
+			}
+		}
+	};
+
+	/**
+	 * Format this node
+	 */
 	public abstract String format(FormattingContext ctx);
 
+	/**
+	 * Append this node formatted to the given builder. This allows a whole
+	 * tree to be formatted into a single buffer. By default, the result of
+	 * {@link #format(FormattingContext)} is appended.
+	 */
+	public void formatTo(FormattingContext ctx, StringBuilder sb) {
+		sb.append(format(ctx));
+	}
+
+	/**
+	 * Determine if {@link #format(FormattingContext)} is overridden by a
+	 * subclass of the given class, which has to declare the method itself.
+	 * Used by nodes implementing
+	 * {@link #formatTo(FormattingContext, StringBuilder)} to honour
+	 * overridden {@link #format(FormattingContext)} methods.
+	 */
+	protected final boolean isFormatOverridden(
+			Class<? extends PatternNode> implementingClass) {
+		return formatDeclaringClass.get(getClass()) != implementingClass;
+	}
+
+	/**
+	 * Return the names of the arguments referenced by this node and its
+	 * children, in a stable order, typically the order of their first
+	 * occurrence in the pattern. The slots are assigned in this order.
+	 */
 	public abstract Set<String> argumentNames();
+
+	/**
+	 * Bind this node and its children to the slots of the given table. Called
+	 * once after parsing, before the node is shared. A node must not be bound
+	 * again once it has been used for formatting. Nodes reading arguments
+	 * should remember the slots of their arguments and use
+	 * {@link FormattingContext#getArgument(int, String)}. By default, nothing
+	 * is done, which leaves the node reading its arguments by name.
+	 */
+	public void bindSlots(ArgumentSlots slots) {
+	}
 }
\ No newline at end of file
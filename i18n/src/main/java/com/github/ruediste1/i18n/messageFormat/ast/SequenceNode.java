@@ -1,12 +1,14 @@
 package com.github.ruediste1.i18n.messageFormat.ast;
 
-import static java.util.stream.Collectors.toSet;
+import static java.util.stream.Collectors.toCollection;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
+import com.github.ruediste1.i18n.messageFormat.ArgumentSlots;
 import com.github.ruediste1.i18n.messageFormat.FormattingContext;
 
 public final class SequenceNode extends PatternNode {
@@ -47,14 +49,28 @@ public final class SequenceNode extends PatternNode {
 	@Override
 	public String format(FormattingContext ctx) {
 		StringBuilder sb = new StringBuilder();
-		nodes.stream().map(n -> n.format(ctx)).forEach(s -> sb.append(s));
+		formatTo(ctx, sb);
 		return sb.toString();
 	}
 
+	@Override
+	public void formatTo(FormattingContext ctx, StringBuilder sb) {
+		for (PatternNode node : nodes) {
+			node.formatTo(ctx, sb);
+		}
+	}
+
 	@Override
 	public Set<String> argumentNames() {
 		return nodes.stream().flatMap(n -> n.argumentNames().stream())
-				.collect(toSet());
+				.collect(toCollection(LinkedHashSet::new));
+	}
+
+	@Override
+	public void bindSlots(ArgumentSlots slots) {
+		for (PatternNode node : nodes) {
+			node.bindSlots(slots);
+		}
 	}
 
 	public Collection<PatternNode> getNodes() {
@@ -0,0 +1,55 @@
+package com.github.ruediste1.i18n.messageFormat.ast;
+
+import java.util.Locale;
+import java.util.Objects;
+
+import com.github.ruediste1.i18n.lString.LString;
+import com.github.ruediste1.i18n.messageFormat.FormattingContext;
+
+/**
+ * Placeholder without format type. {@link LString}s are resolved, all other
+ * arguments are converted using {@link Objects#toString(Object)}
+ */
+public class SimpleArgumentNode extends ArgumentNode {
+
+	/**
+	 * Set if a subclass overrides {@link #format(FormattingContext)}
+	 */
+	private final boolean formatOverridden = isFormatOverridden(SimpleArgumentNode.class);
+
+	public SimpleArgumentNode(String argumentName) {
+		super(argumentName);
+	}
+
+	@Override
+	public String format(FormattingContext ctx) {
+		StringBuilder sb = new StringBuilder();
+		append(ctx, sb);
+		return sb.toString();
+	}
+
+	@Override
+	public void formatTo(FormattingContext ctx, StringBuilder sb) {
+		if (formatOverridden)
+			sb.append(format(ctx));
+		else
+			append(ctx, sb);
+	}
+
+	private void append(FormattingContext ctx, StringBuilder sb) {
+		appendArgument(getArgument(ctx), ctx.getLocale(), sb);
+	}
+
+	/**
+	 * Append an argument the way this node does. Used by generated code as
+	 * well.
+	 */
+	public static void appendArgument(Object arg, Locale locale,
+			StringBuilder sb) {
+		if (arg instanceof LString)
+			sb.append(((LString) arg).resolve(locale));
+		else
+			sb.append(Objects.toString(arg));
+	}
+
+}
@@ -29,6 +29,12 @@ public class DateParser extends DateTimeParserBase {
 		formatters.put("isoWeek", DateTimeFormatter.ISO_WEEK_DATE);
 	}
 
+	/**
+	 * {@link FormatTypeScanner} equivalent to the {@link DateParser}
+	 */
+	public static final FormatTypeScanner SCANNER = scanner(formatters,
+			DateTimeFormatter.ofLocalizedDate(FormatStyle.MEDIUM));
+
 	@Override
 	protected Map<java.lang.String, DateTimeFormatter> getFormatters() {
 		return formatters;
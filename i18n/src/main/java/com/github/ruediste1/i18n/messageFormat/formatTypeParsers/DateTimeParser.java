@@ -31,6 +31,12 @@ public class DateTimeParser extends DateTimeParserBase {
 		formatters.put("isoInstant", DateTimeFormatter.ISO_INSTANT);
 	}
 
+	/**
+	 * {@link FormatTypeScanner} equivalent to the {@link DateTimeParser}
+	 */
+	public static final FormatTypeScanner SCANNER = scanner(formatters,
+			DateTimeFormatter.ofLocalizedDateTime(FormatStyle.MEDIUM));
+
 	@Override
 	protected Map<java.lang.String, DateTimeFormatter> getFormatters() {
 		return formatters;
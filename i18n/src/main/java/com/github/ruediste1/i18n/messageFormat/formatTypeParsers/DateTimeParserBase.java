@@ -29,17 +29,40 @@ public abstract class DateTimeParserBase extends FormatTypeParser {
 					java.lang.String style = OneOrMoreChars(
 							Character::isLetterOrDigit, "style");
 					whiteSpace();
-					DateTimeFormatter formatter = getFormatters().get(style);
-					if (formatter == null) {
-						throw new RuntimeException("unknown style "
-								+ style
-								+ ". Available styles: "
-								+ getFormatters().keySet().stream()
-										.collect(joining(", ")));
-					}
-					return new DateTimeNode(argumentName, formatter);
+					return new DateTimeNode(argumentName, getFormatter(
+							getFormatters(), style));
 				}).orElseGet(
 				() -> new DateTimeNode(argumentName, getDefaultFormatter()));
 	}
 
+	private static DateTimeFormatter getFormatter(
+			Map<String, DateTimeFormatter> formatters, String style) {
+		DateTimeFormatter formatter = formatters.get(style);
+		if (formatter == null) {
+			throw new RuntimeException("unknown style "
+					+ style
+					+ ". Available styles: "
+					+ formatters.keySet().stream().collect(joining(", ")));
+		}
+		return formatter;
+	}
+
+	/**
+	 * Create a {@link FormatTypeScanner} equivalent to a
+	 * {@link DateTimeParserBase} using the given formatters
+	 */
+	protected static FormatTypeScanner scanner(
+			Map<String, DateTimeFormatter> formatters,
+			DateTimeFormatter defaultFormatter) {
+		return (scanner, argumentName) -> {
+			if (!scanner.tryConsume(','))
+				return new DateTimeNode(argumentName, defaultFormatter);
+			scanner.whiteSpace();
+			String style = scanner.oneOrMoreChars(Character::isLetterOrDigit);
+			scanner.whiteSpace();
+			return new DateTimeNode(argumentName, getFormatter(formatters,
+					style));
+		};
+	}
+
 }
\ No newline at end of file
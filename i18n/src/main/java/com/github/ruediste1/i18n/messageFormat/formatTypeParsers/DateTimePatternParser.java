@@ -18,12 +18,25 @@ public class DateTimePatternParser extends FormatTypeParser {
         whiteSpace();
         String pattern = subFormatPattern();
         whiteSpace();
-        DateTimeFormatter formatter;
+        return new DateTimeNode(argumentName, ofPattern(pattern));
+    }
+
+    private static DateTimeFormatter ofPattern(String pattern) {
         try {
-            formatter = DateTimeFormatter.ofPattern(pattern);
+            return DateTimeFormatter.ofPattern(pattern);
         } catch (IllegalArgumentException e) {
             throw new RuntimeException("Unable to parse pattern " + pattern, e);
         }
-        return new DateTimeNode(argumentName, formatter);
     }
+
+    /**
+     * {@link FormatTypeScanner} equivalent to the {@link DateTimePatternParser}
+     */
+    public static final FormatTypeScanner SCANNER = (scanner, argumentName) -> {
+        scanner.expect(',');
+        scanner.whiteSpace();
+        String pattern = scanner.subFormatPattern();
+        scanner.whiteSpace();
+        return new DateTimeNode(argumentName, ofPattern(pattern));
+    };
 }
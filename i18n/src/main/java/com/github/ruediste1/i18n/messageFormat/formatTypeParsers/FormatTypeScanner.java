@@ -0,0 +1,21 @@
+package com.github.ruediste1.i18n.messageFormat.formatTypeParsers;
+
+import com.github.ruediste1.i18n.messageFormat.PatternScanner;
+import com.github.ruediste1.i18n.messageFormat.ast.PatternNode;
+
+/**
+ * Counterpart of a {@link FormatTypeParser} used by the {@link PatternScanner}
+ * . Implementations have to accept the same input and build the same nodes as
+ * the parser they replace.
+ */
+public interface FormatTypeScanner {
+
+    /**
+     * The style part of a placeholder, including the initial comma. If the
+     * input does not match, {@link PatternScanner#mismatch()} is to be thrown.
+     * 
+     * @param argumentName
+     *            name of the argument
+     */
+    PatternNode style(PatternScanner scanner, String argumentName);
+}
@@ -4,6 +4,7 @@ import java.util.Locale;
 import java.util.function.Function;
 
 import com.github.ruediste.lambdaPegParser.DefaultParsingContext;
+import com.github.ruediste1.i18n.messageFormat.LocalizedFormatCache;
 import com.github.ruediste1.i18n.messageFormat.ast.FormatNode;
 import com.github.ruediste1.i18n.messageFormat.ast.PatternNode;
 import com.ibm.icu.text.DecimalFormat;
@@ -12,6 +13,20 @@ import com.ibm.icu.text.NumberFormat;
 
 public class NumberParser extends FormatTypeParser {
 
+    private static final Function<Locale, NumberFormat> defaultStyle = new LocalizedFormatCache<>(
+            NumberFormat::getInstance);
+    private static final Function<Locale, NumberFormat> integerStyle = new LocalizedFormatCache<>(
+            NumberFormat::getIntegerInstance);
+    private static final Function<Locale, NumberFormat> currencyStyle = new LocalizedFormatCache<>(
+            NumberFormat::getCurrencyInstance);
+    private static final Function<Locale, NumberFormat> percentStyle = new LocalizedFormatCache<>(
+            NumberFormat::getPercentInstance);
+
+    private static Function<Locale, NumberFormat> patternStyle(String pattern) {
+        return new LocalizedFormatCache<>(l -> new DecimalFormat(pattern,
+                DecimalFormatSymbols.getInstance(l)));
+    }
+
     public NumberParser(DefaultParsingContext ctx) {
         super(ctx);
     }
@@ -24,22 +39,40 @@ public class NumberParser extends FormatTypeParser {
             Function<Locale, NumberFormat> result = this
                     .<Function<Locale, NumberFormat>> FirstOf(() -> {
                 Str("integer");
-                return l -> NumberFormat.getIntegerInstance(l);
+                return integerStyle;
             } , () -> {
                 Str("currency");
-                return l -> NumberFormat.getCurrencyInstance(l);
+                return currencyStyle;
             } , () -> {
                 Str("percent");
-                return l -> NumberFormat.getPercentInstance(l);
+                return percentStyle;
             } , () -> {
                 String pattern = subFormatPattern();
-                return l -> new DecimalFormat(pattern,
-                        DecimalFormatSymbols.getInstance(l));
+                return patternStyle(pattern);
             });
             whiteSpace();
             return result;
-        }).orElse(l -> NumberFormat.getInstance(l));
+        }).orElse(defaultStyle);
         return new FormatNode(argumentName, formatFactory);
     }
 
-}
\ No newline at end of file
+    /**
+     * {@link FormatTypeScanner} equivalent to the {@link NumberParser}
+     */
+    public static final FormatTypeScanner SCANNER = (scanner, argumentName) -> {
+        Function<Locale, NumberFormat> formatFactory = defaultStyle;
+        if (scanner.tryConsume(',')) {
+            scanner.whiteSpace();
+            if (scanner.tryConsume("integer"))
+                formatFactory = integerStyle;
+            else if (scanner.tryConsume("currency"))
+                formatFactory = currencyStyle;
+            else if (scanner.tryConsume("percent"))
+                formatFactory = percentStyle;
+            else
+                formatFactory = patternStyle(scanner.subFormatPattern());
+            scanner.whiteSpace();
+        }
+        return new FormatNode(argumentName, formatFactory);
+    };
+}
@@ -1,16 +1,20 @@
 package com.github.ruediste1.i18n.messageFormat.formatTypeParsers;
 
-import static java.util.stream.Collectors.toSet;
-
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Stream;
 
 import com.github.ruediste.lambdaPegParser.DefaultParsingContext;
+import com.github.ruediste1.i18n.messageFormat.ArgumentSlots;
 import com.github.ruediste1.i18n.messageFormat.FormattingContext;
+import com.github.ruediste1.i18n.messageFormat.LocalizedFormatCache;
 import com.github.ruediste1.i18n.messageFormat.ast.PatternNode;
 import com.ibm.icu.text.NumberFormat;
 import com.ibm.icu.text.PluralFormat;
@@ -96,11 +100,153 @@ public class PluralParser extends FormatTypeParser {
         });
     }
 
+    /**
+     * {@link FormatTypeScanner} equivalent to the {@link PluralParser}
+     */
+    public static final FormatTypeScanner SCANNER = (scanner, argumentName) -> {
+        PluralNode result = new PluralNode(argumentName);
+        scanner.expect(',');
+        scanner.whiteSpace();
+        do {
+            String selector = "";
+            if (scanner.tryConsume('=')) {
+                scanner.whiteSpace();
+                selector = "=";
+            }
+            selector += scanner.oneOrMoreChars(Character::isLetterOrDigit);
+            scanner.whiteSpace();
+            scanner.expect('{');
+            PatternNode node = scanner.pattern(argumentName);
+            scanner.expect('}');
+            scanner.whiteSpace();
+            result.addRule(selector, node);
+        } while (!scanner.isNext('}'));
+        return result;
+    };
+
     public static class PluralNode extends PatternNode {
 
-        public Map<Double, PatternNode> explicitRules = new HashMap<>();
-        public Map<String, PatternNode> keywordRules = new HashMap<>();
+        /**
+         * Number of small integers whose keywords are remembered per locale
+         */
+        private static final int INTEGER_KEYWORD_CACHE_SIZE = 256;
+
+        private static final long NEGATIVE_ZERO_BITS = Double
+                .doubleToLongBits(-0.0);
+
+        /**
+         * Plural rules of the locales used so far. {@link PluralRules} are
+         * immutable, thus they are shared between all nodes.
+         */
+        private static final ConcurrentMap<Locale, Rules> rulesCache = new ConcurrentHashMap<>();
+
+        /**
+         * Set for node classes overriding
+         * {@link #getPluralRules(Locale)}, which do not use the
+         * {@link #rulesCache}
+         */
+        private static final ClassValue<Boolean> pluralRulesOverridden = new ClassValue<Boolean>() {
+            @Override
+            protected Boolean computeValue(Class<?> type) {
+                for (Class<?> cls = type; cls != PluralNode.class; cls = cls
+                        .getSuperclass()) {
+                    try {
+                        cls.getDeclaredMethod("getPluralRules", Locale.class);
+                        return true;
+                    } catch (NoSuchMethodException e) {
+                        // check the superclass
+                    }
+                }
+                return false;
+            }
+        };
+
+        /**
+         * {@link PluralRules} of a locale, along with the keywords selected
+         * for small non-negative integers so far
+         */
+        private static final class Rules {
+            final PluralRules pluralRules;
+
+            /**
+             * Keywords indexed by integer, null if not selected yet. The
+             * elements are written racily, which is harmless since the same
+             * keyword is written by all threads.
+             */
+            final String[] integerKeywords = new String[INTEGER_KEYWORD_CACHE_SIZE];
+
+            Rules(PluralRules pluralRules) {
+                this.pluralRules = pluralRules;
+            }
+
+            /**
+             * Select the keyword of an integer. The public {@link PluralRules}
+             * API only selects keywords of doubles, thus the keywords of small
+             * integers are remembered to avoid the conversion.
+             */
+            String select(long number) {
+                if (number < 0 || number >= integerKeywords.length)
+                    return pluralRules.select(number);
+                String keyword = integerKeywords[(int) number];
+                if (keyword == null) {
+                    keyword = pluralRules.select(number);
+                    integerKeywords[(int) number] = keyword;
+                }
+                return keyword;
+            }
+        }
+
+        private final Map<Double, PatternNode> explicitRuleMap = new LinkedHashMap<>();
+        private final Map<String, PatternNode> keywordRuleMap = new LinkedHashMap<>();
+
+        /**
+         * Read only view of the explicit rules, keyed by value. Use
+         * {@link #addRule(String, PatternNode)} to add rules, which keeps the
+         * lookup arrays up to date.
+         */
+        public final Map<Double, PatternNode> explicitRules = Collections
+                .unmodifiableMap(explicitRuleMap);
+
+        /**
+         * Read only view of the keyword rules, keyed by keyword. Use
+         * {@link #addRule(String, PatternNode)} to add rules.
+         */
+        public final Map<String, PatternNode> keywordRules = Collections
+                .unmodifiableMap(keywordRuleMap);
         private String argumentName;
+        private int slot = -1;
+
+        /**
+         * Values of the explicit rules, used for the lookup during formatting.
+         * The values are stored as {@link Double#doubleToLongBits(double)},
+         * matching like {@link Double#equals(Object)}: -0.0 does not match
+         * 0.0, and NaN matches NaN.
+         */
+        private long[] explicitValues = new long[0];
+
+        /**
+         * Nodes of the explicit rules, at the same index as the value in
+         * {@link #explicitValues}
+         */
+        private PatternNode[] explicitNodes = new PatternNode[0];
+
+        /**
+         * Integral values of the explicit rules, used for the lookup of
+         * integer arguments without converting them to double. -0.0 is not
+         * included, since it does not match integer zero.
+         */
+        private long[] explicitIntegerValues = new long[0];
+
+        /**
+         * Nodes of the explicit rules, at the same index as the value in
+         * {@link #explicitIntegerValues}
+         */
+        private PatternNode[] explicitIntegerNodes = new PatternNode[0];
+
+        /**
+         * Set if a subclass overrides {@link #format(FormattingContext)}
+         */
+        private final boolean formatOverridden = isFormatOverridden(PluralNode.class);
 
         public PluralNode(String argumentName) {
             this.argumentName = argumentName;
@@ -109,35 +255,104 @@ public class PluralParser extends FormatTypeParser {
 
         @Override
         public String format(FormattingContext ctx) {
-            Object argument = ctx.getArgument(argumentName);
+            StringBuilder sb = new StringBuilder();
+            append(ctx, sb);
+            return sb.toString();
+        }
+
+        @Override
+        public void formatTo(FormattingContext ctx, StringBuilder sb) {
+            if (formatOverridden)
+                sb.append(format(ctx));
+            else
+                append(ctx, sb);
+        }
+
+        private void append(FormattingContext ctx, StringBuilder sb) {
+            Object argument = ctx.getArgument(slot, argumentName);
             if (!(argument instanceof Number)) {
                 throw new IllegalArgumentException(
                         "'" + argument + "' is not a Number");
             }
             Number numberObject = (Number) argument;
+            if (numberObject instanceof Integer
+                    || numberObject instanceof Long
+                    || numberObject instanceof Short
+                    || numberObject instanceof Byte) {
+                appendInteger(ctx, numberObject.longValue(), sb);
+                return;
+            }
             double number = numberObject.doubleValue();
 
             // try explicit rules
             {
-                PatternNode node = explicitRules.get(number);
-                if (node != null) {
-                    return node.format(ctx);
+                long bits = Double.doubleToLongBits(number);
+                long[] values = explicitValues;
+                for (int i = 0; i < values.length; i++) {
+                    if (values[i] == bits) {
+                        explicitNodes[i].formatTo(ctx, sb);
+                        return;
+                    }
+                }
+            }
+
+            // try keyword rules
+            String keyword = getRules(ctx).pluralRules.select(number);
+            formatKeyword(ctx, keyword, number, sb);
+        }
+
+        /**
+         * Append the rule matching an integer. The explicit values are
+         * compared as longs and the keywords of small integers are cached,
+         * thus the argument is not converted to double.
+         */
+        private void appendInteger(FormattingContext ctx, long number,
+                StringBuilder sb) {
+            // try explicit rules
+            long[] values = explicitIntegerValues;
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] == number) {
+                    explicitIntegerNodes[i].formatTo(ctx, sb);
+                    return;
                 }
             }
 
             // try keyword rules
-            PluralRules pluralRules = getPluralRules(ctx.getLocale());
-            String keyword = pluralRules.select(number);
-            PatternNode node = keywordRules.get(keyword);
+            String keyword = getRules(ctx).select(number);
+            formatKeyword(ctx, keyword, number, sb);
+        }
+
+        private void formatKeyword(FormattingContext ctx, String keyword,
+                Object number, StringBuilder sb) {
+            PatternNode node = keywordRuleMap.get(keyword);
             if (node == null) {
-                node = keywordRules.get(PluralRules.KEYWORD_OTHER);
+                node = keywordRuleMap.get(PluralRules.KEYWORD_OTHER);
             }
             if (node == null) {
                 throw new RuntimeException("Number " + number
                         + " was mapped to keyword <" + keyword
                         + "> which is not defined, neither is <other>.");
             }
-            return node.format(ctx);
+            node.formatTo(ctx, sb);
+        }
+
+        private Rules getRules(FormattingContext ctx) {
+            return ctx.getLocalized(this, PluralNode::createRules);
+        }
+
+        private Rules createRules(Locale locale) {
+            if (pluralRulesOverridden.get(getClass()))
+                return new Rules(getPluralRules(locale));
+            return getCachedRules(locale);
+        }
+
+        private static Rules getCachedRules(Locale locale) {
+            Rules result = rulesCache.get(locale);
+            if (result == null) {
+                result = rulesCache.computeIfAbsent(locale,
+                        l -> new Rules(PluralRules.forLocale(l)));
+            }
+            return result;
         }
 
         /**
@@ -145,29 +360,81 @@ public class PluralParser extends FormatTypeParser {
          * Override to use different rules.
          */
         protected PluralRules getPluralRules(Locale locale) {
-            return PluralRules.forLocale(locale);
+            return getCachedRules(locale).pluralRules;
         }
 
         @Override
         public Set<String> argumentNames() {
-            return Stream
-                    .concat(explicitRules.values().stream(),
-                            keywordRules.values().stream())
+            Set<String> result = new LinkedHashSet<>();
+            result.add(argumentName);
+            Stream.concat(explicitRules.values().stream(),
+                    keywordRules.values().stream())
                     .flatMap(node -> node.argumentNames().stream())
-                    .collect(toSet());
+                    .forEach(result::add);
+            return result;
+        }
+
+        @Override
+        public void bindSlots(ArgumentSlots slots) {
+            slot = slots.getSlot(argumentName);
+            if (slot >= 0)
+                argumentName = slots.getName(slot);
+            explicitRules.values().forEach(node -> node.bindSlots(slots));
+            keywordRules.values().forEach(node -> node.bindSlots(slots));
         }
 
         public void addRule(String selector, PatternNode node) {
             if (selector.startsWith("=")) {
-                explicitRules.put(Double.valueOf(selector.substring(1)), node);
+                double value = Double.valueOf(selector.substring(1));
+                long bits = Double.doubleToLongBits(value);
+                explicitRuleMap.put(value, node);
+                int idx = 0;
+                while (idx < explicitValues.length
+                        && explicitValues[idx] != bits) {
+                    idx++;
+                }
+                if (idx == explicitValues.length) {
+                    explicitValues = Arrays.copyOf(explicitValues, idx + 1);
+                    explicitNodes = Arrays.copyOf(explicitNodes, idx + 1);
+                    explicitValues[idx] = bits;
+                }
+                explicitNodes[idx] = node;
+                if (value == Math.rint(value) && bits != NEGATIVE_ZERO_BITS
+                        && Math.abs(value) < 0x1p63)
+                    addExplicitInteger((long) value, node);
             } else {
-                keywordRules.put(selector, node);
+                keywordRuleMap.put(selector, node);
+            }
+        }
+
+        private void addExplicitInteger(long value, PatternNode node) {
+            int idx = 0;
+            while (idx < explicitIntegerValues.length
+                    && explicitIntegerValues[idx] != value) {
+                idx++;
+            }
+            if (idx == explicitIntegerValues.length) {
+                explicitIntegerValues = Arrays.copyOf(explicitIntegerValues,
+                        idx + 1);
+                explicitIntegerNodes = Arrays.copyOf(explicitIntegerNodes,
+                        idx + 1);
+                explicitIntegerValues[idx] = value;
             }
+            explicitIntegerNodes[idx] = node;
         }
     }
 
     public static class HashNode extends PatternNode {
+        private static final LocalizedFormatCache<NumberFormat> numberFormats = new LocalizedFormatCache<>(
+                NumberFormat::getNumberInstance);
+
         private java.lang.String argumentName;
+        private int slot = -1;
+
+        /**
+         * Set if a subclass overrides {@link #format(FormattingContext)}
+         */
+        private final boolean formatOverridden = isFormatOverridden(HashNode.class);
 
         public HashNode(String argumentName) {
             this.argumentName = argumentName;
@@ -175,8 +442,30 @@ public class PluralParser extends FormatTypeParser {
 
         @Override
         public String format(FormattingContext ctx) {
-            return NumberFormat.getNumberInstance(ctx.getLocale())
-                    .format(ctx.getArgument(argumentName));
+            StringBuilder sb = new StringBuilder();
+            append(ctx, sb);
+            return sb.toString();
+        }
+
+        @Override
+        public void formatTo(FormattingContext ctx, StringBuilder sb) {
+            if (formatOverridden)
+                sb.append(format(ctx));
+            else
+                append(ctx, sb);
+        }
+
+        private void append(FormattingContext ctx, StringBuilder sb) {
+            NumberFormat numberFormat = ctx.getLocalized(numberFormats,
+                    LocalizedFormatCache::apply);
+            sb.append(numberFormat.format(ctx.getArgument(slot, argumentName)));
+        }
+
+        @Override
+        public void bindSlots(ArgumentSlots slots) {
+            slot = slots.getSlot(argumentName);
+            if (slot >= 0)
+                argumentName = slots.getName(slot);
         }
 
         @Override
@@ -28,6 +28,12 @@ public class TimeParser extends DateTimeParserBase {
 		formatters.put("isoOffset", DateTimeFormatter.ISO_OFFSET_TIME);
 	}
 
+	/**
+	 * {@link FormatTypeScanner} equivalent to the {@link TimeParser}
+	 */
+	public static final FormatTypeScanner SCANNER = scanner(formatters,
+			DateTimeFormatter.ofLocalizedTime(FormatStyle.MEDIUM));
+
 	@Override
 	protected Map<java.lang.String, DateTimeFormatter> getFormatters() {
 		return formatters;
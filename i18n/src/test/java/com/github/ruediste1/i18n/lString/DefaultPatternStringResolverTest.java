@@ -0,0 +1,75 @@
+package com.github.ruediste1.i18n.lString;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.ruediste1.i18n.messageFormat.MessageFormat;
+import com.github.ruediste1.i18n.messageFormat.MessageFormatListener;
+
+public class DefaultPatternStringResolverTest {
+
+    private DefaultPatternStringResolver resolver;
+    private List<String> parsed;
+    private PatternString str;
+
+    @Before
+    public void before() {
+        parsed = new ArrayList<>();
+        resolver = new DefaultPatternStringResolver();
+        resolver.format = new MessageFormat().withPatternCacheSize(0)
+                .withListener(new MessageFormatListener() {
+                    @Override
+                    public synchronized void patternParsed(String pattern,
+                            long nanos) {
+                        parsed.add(pattern);
+                    }
+                });
+        LString pattern = LString.of(locale -> "de".equals(locale
+                .getLanguage()) ? "Hallo {name}, {n, number}"
+                : "Hello {name}, {n, number}");
+        str = new PatternString(resolver, pattern, "name", LString.of(
+                l -> l.getLanguage()), "n", 1234.5);
+    }
+
+    @Test
+    public void testResolveLocales() {
+        List<Locale> locales = Arrays.asList(Locale.GERMAN, Locale.ENGLISH,
+                Locale.GERMANY, Locale.US, Locale.FRENCH);
+        Map<Locale, String> expected = new LinkedHashMap<>();
+        for (Locale locale : locales) {
+            expected.put(locale, str.resolve(locale));
+        }
+        assertEquals("Hallo de, 1.234,5", expected.get(Locale.GERMANY));
+        assertEquals("Hello en, 1,234.5", expected.get(Locale.ENGLISH));
+
+        parsed.clear();
+        Map<Locale, String> result = str.resolve(locales);
+        assertEquals(expected, result);
+        assertEquals(locales, new ArrayList<>(result.keySet()));
+        assertEquals(2, parsed.size());
+
+        result = str.resolveParallel(locales);
+        assertEquals(expected, result);
+        assertEquals(locales, new ArrayList<>(result.keySet()));
+    }
+
+    @Test
+    public void testDefaultResolveLocales() {
+        LString fixed = LString.of("fixed");
+        Map<Locale, String> result = fixed.resolveParallel(Arrays.asList(
+                Locale.GERMAN, Locale.ENGLISH));
+        assertEquals(Arrays.asList(Locale.GERMAN, Locale.ENGLISH),
+                new ArrayList<>(result.keySet()));
+        assertEquals(Arrays.asList("fixed", "fixed"),
+                new ArrayList<>(result.values()));
+    }
+}
@@ -0,0 +1,167 @@
+package com.github.ruediste1.i18n.lString;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.ListResourceBundle;
+import java.util.Locale;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class FlattenedTranslatedStringResolverTest {
+
+    public static class Provider implements AdditionalResourceKeyProvider {
+        @Override
+        public void provideKeys(KeyReceiver receiver) {
+            receiver.add("a", "additional A");
+            receiver.add("d", "additional D");
+        }
+    }
+
+    private FlattenedTranslatedStringResolver resolver;
+
+    private static Map<String, String> map(String... keysAndValues) {
+        Map<String, String> result = new HashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            result.put(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return result;
+    }
+
+    @Before
+    public void before() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new TranslationCatalogWriter()
+                .add(Locale.ROOT, map("a", "A", "b", "B", "c", "C"))
+                .add(Locale.GERMAN, map("a", "Ä", "b", "Hallo"))
+                .add(new Locale("de", "CH"), map("a", "Ä CH")).write(out);
+        resolver = new FlattenedTranslatedStringResolver();
+        resolver.resolver = new TranslationCatalog(ByteBuffer.wrap(out
+                .toByteArray()), false);
+    }
+
+    private String resolve(String key, Locale locale) {
+        return new TranslatedString(resolver, key, "fallback")
+                .resolve(locale);
+    }
+
+    @Test
+    public void testParents() {
+        Locale ch = new Locale("de", "CH");
+        assertEquals("Ä CH", resolve("a", ch));
+        assertEquals("Hallo", resolve("b", ch));
+        assertEquals("fallback", resolve("c", ch));
+        assertEquals("Ä", resolve("a", Locale.GERMAN));
+        assertEquals(map("a", "Ä CH", "b", "Hallo"), resolver.getTable(ch));
+        assertSame(resolver.getTable(ch), resolver.getTable(ch));
+    }
+
+    @Test
+    public void testAdditionalKeys() {
+        assertEquals("fallback", resolve("d", Locale.GERMAN));
+        resolver.registerAdditionalResourceKeys(Collections
+                .<Class<? extends AdditionalResourceKeyProvider>> singleton(Provider.class));
+        assertEquals("Ä", resolve("a", Locale.GERMAN));
+        assertEquals("additional D", resolve("d", Locale.GERMAN));
+        assertEquals("additional A", resolve("a", Locale.FRENCH));
+    }
+
+    @Test
+    public void testMissingKeyCounts() {
+        resolve("c", Locale.GERMAN);
+        resolve("c", Locale.GERMAN);
+        assertEquals(Collections.singleton("c"), resolver
+                .getMissingKeyCounts().get(Locale.GERMAN).keySet());
+        assertEquals(2L, (long) resolver.getMissingKeyCounts()
+                .get(Locale.GERMAN).get("c"));
+    }
+
+    @Test(expected = MissingResourceException.class)
+    public void testMissing() {
+        new TranslatedString(resolver, "x").resolve(Locale.GERMAN);
+    }
+
+    @Test
+    public void testClearWhileBuildingTable() throws Exception {
+        AtomicReference<String> value = new AtomicReference<>("old");
+        CountDownLatch building = new CountDownLatch(1);
+        CountDownLatch cleared = new CountDownLatch(1);
+        resolver.resolver = locale -> {
+            Object[][] contents = { { "a", value.get() } };
+            if (building.getCount() > 0) {
+                building.countDown();
+                try {
+                    cleared.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+            return new ListResourceBundle() {
+                @Override
+                protected Object[][] getContents() {
+                    return contents;
+                }
+            };
+        };
+
+        Thread thread = new Thread(() -> resolve("a", Locale.GERMAN));
+        thread.start();
+        building.await();
+        value.set("new");
+        resolver.clear();
+        cleared.countDown();
+        thread.join();
+
+        // the table built from the old bundle is not served
+        assertEquals("new", resolve("a", Locale.GERMAN));
+    }
+
+    @Test
+    public void testInternedStrings() {
+        Locale ch = new Locale("de", "CH");
+        // interned before and after the table is created
+        TranslatedString a = TranslatedString.intern(resolver, "a", "fallback");
+        assertEquals("Ä CH", a.resolve(ch));
+        TranslatedString b = TranslatedString.intern(resolver, "b", "fallback");
+        TranslatedString unknown = TranslatedString.intern(resolver,
+                "unknownKeyInternedLate", "fallback");
+        assertEquals("Hallo", b.resolve(ch));
+        assertEquals("fallback", unknown.resolve(ch));
+        assertEquals("fallback",
+                TranslatedString.intern(resolver, "c", "fallback").resolve(ch));
+    }
+
+    @Test
+    public void testKeyIdsReassignedOnClear() {
+        Locale ch = new Locale("de", "CH");
+        TranslatedString a = TranslatedString.intern(resolver, "a", "fallback");
+        assertEquals("Ä CH", a.resolve(ch));
+        Integer keyId = resolver.getKeyId(a);
+        assertNotNull(keyId);
+        assertEquals("Ä CH", a.resolve(ch));
+        assertEquals(keyId, resolver.getKeyId(a));
+        assertEquals("Ä", a.resolve(Locale.GERMAN));
+
+        resolver.clear();
+        assertNull(resolver.getKeyId(a));
+        assertEquals("Ä CH", a.resolve(ch));
+        assertNotNull(resolver.getKeyId(a));
+
+        // strings of unknown keys do not get an id
+        TranslatedString unknown = new TranslatedString(resolver, "unknown",
+                "fallback");
+        assertEquals("fallback", unknown.resolve(ch));
+        assertNull(resolver.getKeyId(unknown));
+    }
+}
@@ -0,0 +1,85 @@
+package com.github.ruediste1.i18n.lString;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class MemoizingTranslatedStringResolverTest {
+
+    private List<String> calls;
+    private String prefix;
+    private MemoizingTranslatedStringResolver resolver;
+
+    @Before
+    public void before() {
+        calls = new ArrayList<>();
+        prefix = "";
+        resolver = new MemoizingTranslatedStringResolver((str, locale) -> {
+            calls.add(str.getResourceKey() + "/" + locale);
+            if (str.getResourceKey().equals("null"))
+                return null;
+            return prefix + str.getResourceKey() + "_" + locale;
+        });
+    }
+
+    @Test
+    public void testMemoized() {
+        TranslatedString str = new TranslatedString(resolver, "a");
+        assertEquals("a_de", str.resolve(Locale.GERMAN));
+        assertEquals("a_en", str.resolve(Locale.ENGLISH));
+        assertEquals("a_de", str.resolve(Locale.GERMAN));
+        assertEquals("a_en", str.resolve(Locale.ENGLISH));
+        assertEquals("[a/de, a/en]", calls.toString());
+    }
+
+    @Test
+    public void testLocalesAddedLater() {
+        TranslatedString a = new TranslatedString(resolver, "a");
+        TranslatedString b = new TranslatedString(resolver, "b");
+        assertEquals("a_de", a.resolve(Locale.GERMAN));
+        assertEquals("b_fr", b.resolve(Locale.FRENCH));
+        assertEquals("b_de", b.resolve(Locale.GERMAN));
+        assertEquals("a_fr", a.resolve(Locale.FRENCH));
+        assertEquals("a_de", a.resolve(Locale.GERMAN));
+        assertEquals("b_fr", b.resolve(Locale.FRENCH));
+        assertEquals(4, calls.size());
+    }
+
+    @Test
+    public void testInvalidate() {
+        TranslatedString str = new TranslatedString(resolver, "a");
+        assertEquals("a_de", str.resolve(Locale.GERMAN));
+        prefix = "new ";
+        assertEquals("a_de", str.resolve(Locale.GERMAN));
+        resolver.invalidate();
+        assertEquals("new a_de", str.resolve(Locale.GERMAN));
+        assertEquals("new a_de", str.resolve(Locale.GERMAN));
+        assertEquals(2, calls.size());
+    }
+
+    @Test
+    public void testNullNotMemoized() {
+        TranslatedString str = new TranslatedString(resolver, "null");
+        assertNull(str.resolve(Locale.GERMAN));
+        assertNull(str.resolve(Locale.GERMAN));
+        assertEquals(2, calls.size());
+    }
+
+    @Test
+    public void testMaxLocales() {
+        TranslatedString str = new TranslatedString(resolver, "a");
+        for (int i = 0; i < MemoizingTranslatedStringResolver.MAX_LOCALES + 2; i++) {
+            Locale locale = new Locale("x" + i);
+            assertEquals("a_" + locale, str.resolve(locale));
+            assertEquals("a_" + locale, str.resolve(locale));
+        }
+        assertEquals(MemoizingTranslatedStringResolver.MAX_LOCALES + 4,
+                calls.size());
+    }
+}
@@ -0,0 +1,126 @@
+package com.github.ruediste1.i18n.lString;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.ListResourceBundle;
+import java.util.Locale;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ResouceBundleTranslatedStringResolverTest {
+
+    private ResouceBundleTranslatedStringResolver resolver;
+    private int bundleLookups;
+
+    @Before
+    public void before() {
+        ResourceBundle bundle = new ListResourceBundle() {
+            @Override
+            protected Object[][] getContents() {
+                return new Object[][] { { "a", "A" } };
+            }
+        };
+        resolver = new ResouceBundleTranslatedStringResolver();
+        resolver.resolver = locale -> {
+            bundleLookups++;
+            return bundle;
+        };
+    }
+
+    @Test
+    public void testNegativeCache() {
+        resolver.setNegativeCacheSize(100);
+        TranslatedString missing = new TranslatedString(resolver, "b",
+                "fallback");
+        assertEquals("fallback", missing.resolve(Locale.GERMAN));
+        assertEquals("fallback", missing.resolve(Locale.GERMAN));
+        assertEquals(1, bundleLookups);
+
+        assertEquals("A", new TranslatedString(resolver, "a")
+                .resolve(Locale.GERMAN));
+        assertEquals(2, bundleLookups);
+
+        resolver.invalidateMissingKeys();
+        missing.resolve(Locale.GERMAN);
+        assertEquals(3, bundleLookups);
+        assertEquals(3L, (long) resolver.getMissingKeyCounts()
+                .get(Locale.GERMAN).get("b"));
+    }
+
+    @Test
+    public void testNegativeCacheDisabledByDefault() {
+        TranslatedString missing = new TranslatedString(resolver, "b",
+                "fallback");
+        missing.resolve(Locale.GERMAN);
+        missing.resolve(Locale.GERMAN);
+        assertEquals(2, bundleLookups);
+    }
+
+    @Test
+    public void testNegativeCacheBounded() {
+        resolver.setNegativeCacheSize(1);
+        TranslatedString b = new TranslatedString(resolver, "b", "fallback");
+        TranslatedString c = new TranslatedString(resolver, "c", "fallback");
+        b.resolve(Locale.GERMAN);
+        b.resolve(Locale.GERMAN);
+        assertEquals(1, bundleLookups);
+        c.resolve(Locale.GERMAN);
+        b.resolve(Locale.GERMAN);
+        assertEquals(3, bundleLookups);
+    }
+
+    @Test
+    public void testMissingKeyCounts() {
+        TranslatedString missing = new TranslatedString(resolver, "b",
+                "fallback");
+        missing.resolve(Locale.GERMAN);
+        missing.resolve(Locale.GERMAN);
+        missing.resolve(Locale.FRENCH);
+        new TranslatedString(resolver, "a").resolve(Locale.GERMAN);
+        try {
+            new TranslatedString(resolver, "c").resolve(Locale.GERMAN);
+        } catch (MissingResourceException e) {
+            // expected
+        }
+
+        Map<String, Long> german = new HashMap<>();
+        german.put("b", 2L);
+        german.put("c", 1L);
+        assertEquals(german, resolver.getMissingKeyCounts().get(Locale.GERMAN));
+        assertEquals(1L, (long) resolver.getMissingKeyCounts()
+                .get(Locale.FRENCH).get("b"));
+
+        resolver.invalidateMissingKeys();
+        assertEquals(german, resolver.getMissingKeyCounts().get(Locale.GERMAN));
+
+        resolver.resetMissingKeyCounts();
+        assertTrue(resolver.getMissingKeyCounts().isEmpty());
+    }
+
+    @Test
+    public void testMissingKeyCountsBounded() {
+        resolver.setMaxMissingKeyCounts(2);
+        for (String key : new String[] { "b", "c", "d", "b" }) {
+            new TranslatedString(resolver, key, "fallback")
+                    .resolve(Locale.GERMAN);
+        }
+        Map<String, Long> german = new HashMap<>();
+        german.put("b", 2L);
+        german.put("c", 1L);
+        assertEquals(german, resolver.getMissingKeyCounts().get(Locale.GERMAN));
+    }
+
+    @Test
+    public void testMissingKeyCountsDisabled() {
+        resolver.setMaxMissingKeyCounts(0);
+        assertEquals("fallback", new TranslatedString(resolver, "b",
+                "fallback").resolve(Locale.GERMAN));
+        assertTrue(resolver.getMissingKeyCounts().isEmpty());
+    }
+}
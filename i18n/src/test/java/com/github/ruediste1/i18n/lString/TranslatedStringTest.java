@@ -0,0 +1,58 @@
+package com.github.ruediste1.i18n.lString;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.lang.ref.WeakReference;
+import java.util.Locale;
+
+import org.junit.Test;
+
+public class TranslatedStringTest {
+
+    private final TranslatedStringResolver resolver = (str, locale) -> str.getFallback();
+
+    @Test
+    public void testIntern() {
+        TranslatedString str = TranslatedString.intern(resolver, "test.intern", "fallback");
+        assertSame(str, TranslatedString.intern(resolver, "test.intern", "fallback"));
+        assertEquals("fallback", str.resolve(Locale.ENGLISH));
+
+        TranslatedString plain = new TranslatedString(resolver, "test.intern", "fallback");
+        assertEquals(plain, str);
+        assertEquals(plain.hashCode(), str.hashCode());
+    }
+
+    @Test
+    public void testInternDistinguishesFallbackAndResolver() {
+        TranslatedString str = TranslatedString.intern(resolver, "test.distinct", "a");
+        TranslatedString otherFallback = TranslatedString.intern(resolver, "test.distinct", "b");
+        TranslatedString otherResolver = TranslatedString.intern((s, l) -> "", "test.distinct", "a");
+        TranslatedString noFallback = TranslatedString.intern(resolver, "test.distinct", null);
+
+        assertNotSame(str, otherFallback);
+        assertNotEquals(str, otherFallback);
+        assertNotSame(str, otherResolver);
+        assertNotSame(str, noFallback);
+        assertSame(noFallback, TranslatedString.intern(resolver, "test.distinct", null));
+    }
+
+    @Test
+    public void testInternDoesNotPinResolver() throws Exception {
+        WeakReference<TranslatedStringResolver> ref = internWithNewResolver();
+        for (int i = 0; i < 100 && ref.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(ref.get());
+    }
+
+    private WeakReference<TranslatedStringResolver> internWithNewResolver() {
+        TranslatedStringResolver newResolver = new MemoizingTranslatedStringResolver(resolver);
+        TranslatedString.intern(newResolver, "test.pin", "fallback").resolve(Locale.ENGLISH);
+        return new WeakReference<>(newResolver);
+    }
+}
@@ -0,0 +1,116 @@
+package com.github.ruediste1.i18n.lString;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TranslationCatalogTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File file;
+
+    private static Map<String, String> map(String... keysAndValues) {
+        Map<String, String> result = new HashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            result.put(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return result;
+    }
+
+    @Before
+    public void before() throws Exception {
+        file = folder.newFile("catalog.bin");
+        try (OutputStream out = new FileOutputStream(file)) {
+            new TranslationCatalogWriter()
+                    .add(Locale.ROOT, map("a", "A", "b", "B", "c", "C"))
+                    .add(Locale.GERMAN, map("a", "Ä", "b", "Hallo {name}"))
+                    .add(new Locale("de", "CH"), map("a", "Ä CH"))
+                    .write(out);
+        }
+    }
+
+    @Test
+    public void testLookup() throws Exception {
+        TranslationCatalog catalog = TranslationCatalog.open(file.toPath());
+        assertEquals(new HashSet<>(Arrays.asList(Locale.ROOT, Locale.GERMAN,
+                new Locale("de", "CH"))), catalog.getLocales());
+        assertEquals("Ä", catalog.getValue(Locale.GERMAN, "a"));
+        assertNull(catalog.getValue(Locale.GERMAN, "c"));
+
+        ResourceBundle bundle = catalog.getResourceBundle(new Locale("de",
+                "CH"));
+        assertEquals("Ä CH", bundle.getString("a"));
+        assertEquals("Hallo {name}", bundle.getString("b"));
+        assertFalse(bundle.containsKey("c"));
+        assertEquals(new HashSet<>(Arrays.asList("a", "b")), bundle.keySet());
+
+        assertFalse(catalog.getResourceBundle(Locale.FRENCH).containsKey("a"));
+    }
+
+    @Test
+    public void testCandidateLocales() throws Exception {
+        File other = folder.newFile("other.bin");
+        try (OutputStream out = new FileOutputStream(other)) {
+            new TranslationCatalogWriter()
+                    .add(new Locale.Builder().setLanguage("zh")
+                            .setScript("Hant").build(), map("a", "Hant"))
+                    .add(new Locale("zh"), map("a", "zh", "b", "zh"))
+                    .add(new Locale("no", "NO", "NY"), map("a", "nynorsk"))
+                    .add(new Locale("no"), map("a", "norsk"))
+                    .write(out);
+        }
+        TranslationCatalog catalog = TranslationCatalog.open(other.toPath());
+
+        // zh_TW implies the traditional script
+        ResourceBundle bundle = catalog.getResourceBundle(new Locale("zh",
+                "TW"));
+        assertEquals("Hant", bundle.getString("a"));
+        assertEquals("zh", bundle.getString("b"));
+        assertEquals("zh", catalog.getResourceBundle(new Locale("zh", "CN"))
+                .getString("a"));
+
+        // no_NO_NY is stored as nn_NO
+        assertEquals("nynorsk",
+                catalog.getResourceBundle(new Locale("no", "NO", "NY"))
+                        .getString("a"));
+        assertEquals("norsk", catalog.getResourceBundle(new Locale("nb", "NO"))
+                .getString("a"));
+    }
+
+    @Test
+    public void testDefaultLocale() throws Exception {
+        TranslationCatalog catalog = TranslationCatalog.open(file.toPath(),
+                true);
+        assertTrue(catalog.getResourceBundle(Locale.GERMAN).containsKey("c"));
+        assertEquals("A", catalog.getResourceBundle(Locale.FRENCH)
+                .getString("a"));
+    }
+
+    @Test
+    public void testTranslatedStringResolver() throws Exception {
+        ResouceBundleTranslatedStringResolver resolver = new ResouceBundleTranslatedStringResolver();
+        resolver.resolver = TranslationCatalog.open(file.toPath());
+        assertEquals("Ä CH", new TranslatedString(resolver, "a")
+                .resolve(new Locale("de", "CH")));
+        assertEquals("fallback", new TranslatedString(resolver, "c",
+                "fallback").resolve(Locale.GERMAN));
+    }
+}
@@ -0,0 +1,95 @@
+package com.github.ruediste1.i18n.label;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.ruediste1.i18n.lString.TranslatedString;
+
+public class LabelIndexTest {
+
+    private LabelUtil indexed;
+    private LabelUtil reflection;
+
+    @Before
+    public void before() {
+        indexed = new LabelUtil(null);
+        reflection = new LabelUtil(null);
+        reflection.setLabelIndexEnabled(false);
+    }
+
+    @Test
+    public void testIndexPresent() {
+        assertTrue(LabelIndex.isIndexed(LabelUtilTest.TestPropertiesLabeledDifferent.class));
+        assertTrue(LabelIndex.isIndexed(LabelUtilTest.TestMethodsLabeled.class));
+        assertFalse(LabelIndex.isIndexed(String.class));
+        assertFalse(LabelIndex.isIndexed(LabelIndexTest.class));
+    }
+
+    private Object labelsDefinedOn(LabelUtil util, Class<?> cls) {
+        try {
+            List<TranslatedString> labels = util.getLabelsDefinedOn(cls);
+            return new HashSet<>(labels);
+        } catch (RuntimeException e) {
+            return e.getClass();
+        }
+    }
+
+    @Test
+    public void testSameLabelsAsReflection() {
+        for (Class<?> cls : LabelUtilTest.class.getDeclaredClasses()) {
+            assertEquals(cls.getName(), labelsDefinedOn(reflection, cls), labelsDefinedOn(indexed, cls));
+        }
+    }
+
+    @Test
+    public void testIndexesMatchClasses() {
+        for (Class<?> cls : LabelUtilTest.class.getDeclaredClasses()) {
+            String resource = LabelIndexProcessor.INDEX_LOCATION
+                    + cls.getName() + LabelIndexProcessor.INDEX_SUFFIX;
+            if (cls.getClassLoader().getResource(resource) != null)
+                assertTrue(cls.getName(), LabelIndex.isIndexed(cls));
+        }
+    }
+
+    @Test
+    public void testSignatureHashIsDigest() {
+        // the ids have the same String.hashCode()
+        assertEquals("field.Aa".hashCode(), "field.BB".hashCode());
+        assertNotEquals(
+                LabelIndexProcessor.signatureHash(Arrays.asList("field.Aa")),
+                LabelIndexProcessor.signatureHash(Arrays.asList("field.BB")));
+        assertEquals(
+                LabelIndexProcessor.signatureHash(Arrays.asList("a", "b")),
+                LabelIndexProcessor.signatureHash(Arrays.asList("b", "a")));
+    }
+
+    /**
+     * Has an index in the test resources, which does not match the members.
+     * Not labeled, thus the processor does not overwrite the index. If the
+     * index was used, the field would be labeled.
+     */
+    static class StaleIndexed {
+        @SuppressWarnings("unused")
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    @Test
+    public void testStaleIndexIgnored() {
+        assertFalse(LabelIndex.isIndexed(StaleIndexed.class));
+        assertEquals(labelsDefinedOn(reflection, StaleIndexed.class),
+                labelsDefinedOn(indexed, StaleIndexed.class));
+    }
+}
@@ -4,6 +4,7 @@ import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.io.StringWriter;
@@ -367,6 +368,22 @@ public class LabelUtilTest {
                 util.method(TypeToken.of(TestMethodLabeled.class), x -> x.bar()).tryLabel());
     }
 
+    @Test
+    public void testCache() throws Exception {
+        TranslatedString label = util.property(TestClass.class, "labeled").label();
+        assertSame(label, util.property(TestClass.class, "labeled").label());
+        assertSame(util.enumMember(TestEnum.MEMBER_B).label(), util.enumMember(TestEnum.MEMBER_B).label());
+        Method bar = TestMethodsLabeled.class.getDeclaredMethod("bar");
+        assertSame(util.method(bar).label(), util.method(bar).label());
+        assertSame(util.method(TestMethodParametersLabeled.class, x -> x.allLabeled(null, 0)).parameter("a").label(),
+                util.method(TestMethodParametersLabeled.class, x -> x.allLabeled(null, 0)).parameter("a").label());
+
+        // labels are interned, thus they survive clearing the cache while
+        // they are referenced
+        util.clearCache();
+        assertSame(label, util.property(TestClass.class, "labeled").label());
+    }
+
     @Test
     public void testAdditionalAnnotationsExtractorForMethodLabels() {
         util.setAdditionalLabelsExtractor(new StereotypeAdditionalLabelExtractor(Stereotype.class, util));
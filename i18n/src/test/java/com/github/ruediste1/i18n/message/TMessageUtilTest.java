@@ -1,7 +1,11 @@
 package com.github.ruediste1.i18n.message;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
+import java.lang.reflect.Proxy;
 import java.util.HashMap;
 
 import org.junit.Before;
@@ -9,6 +13,7 @@ import org.junit.Test;
 
 import com.github.ruediste1.i18n.lString.PatternString;
 import com.github.ruediste1.i18n.lString.TranslatedString;
+import com.github.ruediste1.i18n.messageFormat.MessageArguments;
 
 public class TMessageUtilTest {
 
@@ -24,13 +29,23 @@ public class TMessageUtilTest {
 
         @TMessage("There are {count} users")
         PatternString userCount(int count);
+
+        @TMessage("{a} {b} {c} {d}")
+        PatternString primitives(long a, double b, char c, String d);
+    }
+
+    @TMessages
+    interface PackagePrivateMessages {
+        @TMessage("There are {count} users")
+        PatternString userCount(int count);
     }
 
+    TMessageUtil util;
     TestMessages msgs;
 
     @Before
     public void setup() {
-        TMessageUtil util = new TMessageUtil();
+        util = new TMessageUtil();
         msgs = util.getMessageInterfaceInstance(TestMessages.class);
     }
 
@@ -64,4 +79,43 @@ public class TMessageUtilTest {
                 getClass().getName() + "$TestMessages.userCount",
                 "There are {count} users"), map), msgs.userCount(4));
     }
+
+    @Test
+    public void testPrimitiveArguments() {
+        HashMap<String, Object> map = new HashMap<>();
+        map.put("a", 1L);
+        map.put("b", 2.5);
+        map.put("c", 'x');
+        map.put("d", "foo");
+        assertEquals(new PatternString(null, new TranslatedString(null,
+                getClass().getName() + "$TestMessages.primitives",
+                "{a} {b} {c} {d}"), map), msgs.primitives(1L, 2.5, 'x', "foo"));
+    }
+
+    @Test
+    public void testArgumentsNotCopied() {
+        PatternString first = msgs.userCount(1);
+        PatternString second = msgs.userCount(2);
+        assertTrue(first.getArguments() instanceof MessageArguments);
+        assertSame(((MessageArguments) first.getArguments()).getNames(),
+                ((MessageArguments) second.getArguments()).getNames());
+    }
+
+    @Test
+    public void testInstanceCached() {
+        assertFalse(Proxy.isProxyClass(msgs.getClass()));
+        assertSame(msgs, util.getMessageInterfaceInstance(TestMessages.class));
+    }
+
+    @Test
+    public void testPackagePrivateInterface() {
+        PackagePrivateMessages instance = util
+                .getMessageInterfaceInstance(PackagePrivateMessages.class);
+        assertTrue(Proxy.isProxyClass(instance.getClass()));
+        HashMap<String, Object> map = new HashMap<>();
+        map.put("count", 4);
+        assertEquals(new PatternString(null, new TranslatedString(null,
+                PackagePrivateMessages.class.getName() + ".userCount",
+                "There are {count} users"), map), instance.userCount(4));
+    }
 }
@@ -0,0 +1,48 @@
+package com.github.ruediste1.i18n.messageFormat;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class FormattingContextTest {
+
+    @Test
+    public void testArgumentsView() {
+        AtomicInteger prepareCount = new AtomicInteger();
+        FormattingContext ctx = new FormattingContext(Locale.ENGLISH,
+                ArgumentSlots.of(Arrays.asList("a", "b")), new Object[] { 1,
+                        2 }, (arg, locale) -> {
+                    prepareCount.incrementAndGet();
+                    return "p" + arg;
+                });
+
+        Map<String, Object> arguments = ctx.getArguments();
+        assertSame(arguments, ctx.getArguments());
+        assertEquals(2, arguments.size());
+        assertTrue(arguments.containsKey("b"));
+        assertEquals(0, prepareCount.get());
+
+        assertEquals("p2", arguments.get("b"));
+        assertEquals(1, prepareCount.get());
+
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("a", "p1");
+        expected.put("b", "p2");
+        assertEquals(expected, arguments);
+        assertEquals(2, prepareCount.get());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testArgumentsViewReadOnly() {
+        new FormattingContext(Locale.ENGLISH, new HashMap<>()).getArguments()
+                .put("a", 1);
+    }
+}
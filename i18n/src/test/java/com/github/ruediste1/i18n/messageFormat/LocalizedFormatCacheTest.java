@@ -0,0 +1,35 @@
+package com.github.ruediste1.i18n.messageFormat;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.Test;
+
+import com.ibm.icu.text.NumberFormat;
+
+public class LocalizedFormatCacheTest {
+
+    @Test
+    public void testTemplateCreatedOncePerLocale() {
+        List<Locale> created = new ArrayList<>();
+        LocalizedFormatCache<NumberFormat> cache = new LocalizedFormatCache<>(
+                locale -> {
+                    created.add(locale);
+                    return NumberFormat.getInstance(locale);
+                });
+
+        NumberFormat first = cache.apply(Locale.ENGLISH);
+        NumberFormat second = cache.apply(Locale.ENGLISH);
+        assertNotSame(first, second);
+        assertEquals("1,000.5", first.format(1000.5));
+        assertEquals("1,000.5", second.format(1000.5));
+        assertEquals("1.000,5", cache.apply(Locale.GERMAN).format(1000.5));
+
+        assertEquals(Arrays.asList(Locale.ENGLISH, Locale.GERMAN), created);
+    }
+}
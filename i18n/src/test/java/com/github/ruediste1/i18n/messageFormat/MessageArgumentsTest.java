@@ -0,0 +1,123 @@
+package com.github.ruediste1.i18n.messageFormat;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class MessageArgumentsTest {
+
+    private ArgumentSlots names;
+    private Object[] values;
+    private MessageArguments arguments;
+
+    @Before
+    public void before() {
+        names = ArgumentSlots.of(Arrays.asList("name", "count", "empty"));
+        values = new Object[] { "Jane", 3, null };
+        arguments = new MessageArguments(names, values);
+    }
+
+    @Test
+    public void testMapView() {
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("name", "Jane");
+        expected.put("count", 3);
+        expected.put("empty", null);
+
+        assertEquals(expected, arguments);
+        assertEquals(arguments, expected);
+        assertEquals(expected.hashCode(), arguments.hashCode());
+        assertEquals(3, arguments.size());
+        assertEquals("Jane", arguments.get("name"));
+        assertTrue(arguments.containsKey("empty"));
+        assertFalse(arguments.containsKey("foo"));
+        assertNull(arguments.get("foo"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testReadOnly() {
+        arguments.put("foo", 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongValueCount() {
+        new MessageArguments(names, "Jane");
+    }
+
+    @Test
+    public void testValuesNotCopiedForSameNames() {
+        assertSame(values, names.values(arguments));
+        assertSame(values, ArgumentSlots.of(names.getNames())
+                .values(arguments));
+    }
+
+    @Test
+    public void testValuesReordered() {
+        ArgumentSlots slots = ArgumentSlots.of(Arrays.asList("count",
+                "other", "name"));
+        assertArrayEquals(new Object[] { 3, null, "Jane" },
+                slots.values(arguments));
+    }
+
+    @Test
+    public void testSlotsInPatternOrder() {
+        // the parameter order differs from the iteration order of a HashSet
+        ArgumentSlots parameters = ArgumentSlots.of(Arrays.asList("b", "a"));
+        Object[] values = new Object[] { 1, 2 };
+        CompiledMessage message = new MessageFormat().compile("{b} {a}");
+        assertEquals(parameters.getNames(), message.getArgumentSlots()
+                .getNames());
+        assertSame(values, message.getArgumentSlots().values(
+                new MessageArguments(parameters, values)));
+        assertEquals("1 2", message.format(new MessageArguments(parameters,
+                values), Locale.ENGLISH));
+    }
+
+    @Test
+    public void testValuesReorderedByPattern() {
+        ArgumentSlots parameters = ArgumentSlots.of(Arrays.asList("b", "a",
+                "c"));
+        CompiledMessage message = new MessageFormat().compile("{a} {b}");
+        for (int i = 0; i < 2; i++) {
+            assertArrayEquals(new Object[] { 2, 1 }, message.getArgumentSlots()
+                    .values(new MessageArguments(parameters, 1, 2, 3)));
+            assertEquals("2 1", message.format(new MessageArguments(
+                    parameters, 1, 2, 3), Locale.ENGLISH));
+        }
+        // another table replaces the mapping
+        assertEquals("x y", message.format(new MessageArguments(
+                ArgumentSlots.of(Arrays.asList("a", "b")), "x", "y"),
+                Locale.ENGLISH));
+        assertEquals("2 1", message.format(new MessageArguments(parameters,
+                1, 2, 3), Locale.ENGLISH));
+    }
+
+    @Test
+    public void testFormat() {
+        MessageFormat format = new MessageFormat();
+        assertEquals("Jane has 3 items", format.format(
+                "{name} has {count} items", arguments, Locale.ENGLISH));
+        assertEquals("3 items of Jane", format.format(
+                "{count} items of {name}", arguments, Locale.ENGLISH));
+    }
+
+    @Test
+    public void testContext() {
+        FormattingContext ctx = new FormattingContext(Locale.ENGLISH,
+                arguments);
+        assertSame(names, ctx.getSlots());
+        assertEquals("Jane", ctx.getArgument("name"));
+        assertEquals(3, ctx.getArgument(1, "count"));
+    }
+}
@@ -0,0 +1,187 @@
+package com.github.ruediste1.i18n.messageFormat;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringWriter;
+import java.text.NumberFormat;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.ruediste.lambdaPegParser.DefaultParsingContext;
+import com.github.ruediste1.i18n.messageFormat.ast.FormatNode;
+import com.github.ruediste1.i18n.messageFormat.ast.PatternNode;
+import com.github.ruediste1.i18n.messageFormat.formatTypeParsers.FormatTypeParser;
+
+public class MessageBatchTest {
+
+    private static final String PATTERN = "{n, plural, one {one {name}} other {# {name}s}}";
+
+    private MessageFormat format;
+    private List<Map<String, Object>> rows;
+    private List<String> expected;
+
+    @Before
+    public void before() {
+        format = new MessageFormat();
+        rows = new ArrayList<>();
+        expected = new ArrayList<>();
+        NumberFormat numberFormat = NumberFormat
+                .getNumberInstance(Locale.ENGLISH);
+        int count = 3 * MessageBatch.CHUNK_SIZE + 5;
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("n", i);
+            row.put("name", "item");
+            rows.add(row);
+            expected.add(i == 1 ? "one item" : numberFormat.format(i)
+                    + " items");
+        }
+    }
+
+    private List<Object[]> arrays(MessageBatch batch) {
+        ArgumentSlots slots = batch.getMessage().getArgumentSlots();
+        List<Object[]> result = new ArrayList<>();
+        for (Map<String, Object> row : rows) {
+            Object[] values = new Object[slots.size()];
+            for (int i = 0; i < values.length; i++)
+                values[i] = row.get(slots.getName(i));
+            result.add(values);
+        }
+        return result;
+    }
+
+    @Test
+    public void testFormat() {
+        MessageBatch batch = format.batch(PATTERN, Locale.ENGLISH);
+        assertEquals("one item", batch.format(rows.get(1)));
+        assertEquals("2 items", batch.format(arrays(batch).get(2)));
+        assertEquals(Locale.ENGLISH, batch.getLocale());
+        assertFalse(batch.isParallel());
+    }
+
+    @Test
+    public void testStream() {
+        MessageBatch batch = format.batch(PATTERN, Locale.ENGLISH);
+        assertEquals(expected, batch.formatAll(rows.stream()).collect(toList()));
+        assertEquals(expected, batch.parallel().formatAll(rows.stream())
+                .collect(toList()));
+        assertEquals(expected,
+                batch.parallel().formatAllArrays(arrays(batch).stream())
+                        .collect(toList()));
+    }
+
+    @Test
+    public void testSink() {
+        MessageBatch batch = format.batch(PATTERN, Locale.ENGLISH);
+        for (MessageBatch b : Arrays.asList(batch, batch.parallel())) {
+            List<String> result = new ArrayList<>();
+            b.formatAll(rows, result::add);
+            assertEquals(expected, result);
+            result.clear();
+            b.formatAllArrays(arrays(batch), result::add);
+            assertEquals(expected, result);
+        }
+    }
+
+    @Test
+    public void testWriter() throws Exception {
+        MessageBatch batch = format.batch(PATTERN, Locale.ENGLISH);
+        String joined = expected.stream().map(x -> x + "\n")
+                .reduce("", String::concat);
+        for (MessageBatch b : Arrays.asList(batch, batch.parallel())) {
+            StringWriter writer = new StringWriter();
+            b.writeAll(rows, writer, "\n");
+            assertEquals(joined, writer.toString());
+            writer = new StringWriter();
+            b.writeAllArrays(arrays(batch), writer, "\n");
+            assertEquals(joined, writer.toString());
+        }
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        MessageBatch batch = format.batch(PATTERN, Locale.ENGLISH).parallel();
+        StringWriter writer = new StringWriter();
+        batch.writeAll(new ArrayList<>(), writer, "\n");
+        assertEquals("", writer.toString());
+        assertEquals(0, batch.formatAll(IntStream.range(0, 0).mapToObj(
+                i -> rows.get(i))).count());
+    }
+
+    @Test
+    public void testCompiledOncePerBatch() {
+        CompiledMessage message = format.withBytecodeCompilationThreshold(
+                1000).compile(PATTERN);
+        assertFalse(message.isBytecodeCompiled());
+        message.batch(Locale.ENGLISH);
+        assertTrue(message.isBytecodeCompiled());
+
+        message = format.withBytecodeCompilationThreshold(0).compile(PATTERN);
+        assertEquals(expected, message.batch(Locale.ENGLISH)
+                .formatAll(rows.stream()).collect(toList()));
+        assertFalse(message.isBytecodeCompiled());
+    }
+
+    /**
+     * Creates a new format each time the factory is called, counting the
+     * calls
+     */
+    public static class CountingParser extends FormatTypeParser {
+        static final AtomicInteger created = new AtomicInteger();
+
+        public CountingParser(DefaultParsingContext ctx) {
+            super(ctx);
+        }
+
+        @Override
+        public PatternNode style(String argumentName) {
+            return new FormatNode(argumentName, locale -> {
+                created.incrementAndGet();
+                return NumberFormat.getIntegerInstance(locale);
+            });
+        }
+    }
+
+    @Test
+    public void testFormattersReused() throws Exception {
+        Map<String, Class<? extends FormatTypeParser>> parsers = MessageFormat
+                .defaultFormatTypeParsers();
+        parsers.put("counting", CountingParser.class);
+        MessageBatch batch = format.withFormatTypeParsers(parsers).batch(
+                "{n, counting} {d, date}", Locale.GERMAN);
+        LocalDate date = LocalDate.of(2015, 3, 4);
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("n", 1000 + i);
+            row.put("d", date);
+            rows.add(row);
+        }
+
+        CountingParser.created.set(0);
+        List<String> result = new ArrayList<>();
+        batch.formatAll(rows, result::add);
+        assertEquals("1.000 04.03.2015", result.get(0));
+        assertEquals("1.099 04.03.2015", result.get(99));
+        assertEquals(1, CountingParser.created.get());
+
+        // the worker is reused by the next run
+        StringWriter writer = new StringWriter();
+        batch.writeAll(rows, writer, "\n");
+        assertTrue(writer.toString().startsWith("1.000 04.03.2015\n"));
+        assertEquals(1, CountingParser.created.get());
+    }
+}
@@ -1,9 +1,26 @@
 package com.github.ruediste1.i18n.messageFormat;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 
@@ -29,6 +46,28 @@ public class MessageFormatTest {
         assertEquals("hello mister dummy1", fmt.format("hello mister {arg}", args, Locale.ENGLISH));
     }
 
+    @Test
+    public void testArgumentPreparationLazy() {
+        List<Object> prepared = new ArrayList<>();
+        MessageFormat fmt = new MessageFormat().withArgumentPreparationFunction((arg, locale) -> {
+            prepared.add(arg);
+            return arg;
+        });
+
+        HashMap<String, Object> args = new HashMap<>();
+        args.put("unused", "u");
+        args.put("a", "x");
+        args.put("b", "y");
+        args.put("count", 1);
+
+        assertEquals("x x", fmt.format("{a} {a}", args, Locale.ENGLISH));
+        assertEquals(Arrays.asList("x"), prepared);
+
+        prepared.clear();
+        assertEquals("one x", fmt.format("{count, plural, one {one {a}} other {{b}}}", args, Locale.ENGLISH));
+        assertEquals(Arrays.asList(1, "x"), prepared);
+    }
+
     @Test
     public void testLString() {
         MessageFormat fmt = new MessageFormat();
@@ -38,4 +77,258 @@ public class MessageFormatTest {
 
         assertEquals("hello mister dummy1", fmt.format("hello mister {arg}", args, Locale.ENGLISH));
     }
+
+    @Test
+    public void testPatternCache() {
+        MessageFormat fmt = new MessageFormat();
+
+        HashMap<String, Object> args = new HashMap<>();
+        args.put("arg", "foo");
+
+        assertEquals("hello foo", fmt.format("hello {arg}", args, Locale.ENGLISH));
+        args.put("arg", "bar");
+        assertEquals("hello bar", fmt.format("hello {arg}", args, Locale.GERMAN));
+
+        assertEquals(1, fmt.getPatternCacheStats().missCount());
+        assertEquals(1, fmt.getPatternCacheStats().hitCount());
+    }
+
+    @Test
+    public void testPatternCacheEviction() {
+        MessageFormat fmt = new MessageFormat().withPatternCacheSize(1);
+
+        HashMap<String, Object> args = new HashMap<>();
+        args.put("arg", "foo");
+
+        fmt.format("a {arg}", args, Locale.ENGLISH);
+        fmt.format("b {arg}", args, Locale.ENGLISH);
+        assertEquals("a foo", fmt.format("a {arg}", args, Locale.ENGLISH));
+
+        assertEquals(3, fmt.getPatternCacheStats().missCount());
+        assertTrue(fmt.getPatternCacheStats().evictionCount() >= 1);
+    }
+
+    @Test
+    public void testPatternCacheConcurrentMiss() throws Exception {
+        AtomicInteger parseCount = new AtomicInteger();
+        MessageFormat fmt = new MessageFormat().withListener(new MessageFormatListener() {
+            @Override
+            public void patternParsed(String pattern, long nanos) {
+                parseCount.incrementAndGet();
+                try {
+                    // keep the other threads waiting for this compilation
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<CompiledMessage>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++)
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return fmt.compile("hello {arg}");
+                }));
+            start.countDown();
+            for (Future<CompiledMessage> result : results)
+                assertSame(results.get(0).get(), result.get());
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, parseCount.get());
+    }
+
+    @Test
+    public void testPatternCacheExceptionUnwrapped() {
+        try {
+            new MessageFormat().compile("{arg, foo}");
+            fail();
+        } catch (RuntimeException e) {
+            assertEquals(RuntimeException.class, e.getClass());
+            assertTrue(e.getMessage().startsWith("Unknown format type <foo>"));
+        }
+    }
+
+    @Test
+    public void testPatternCacheDisabled() {
+        MessageFormat fmt = new MessageFormat().withPatternCacheSize(0);
+
+        HashMap<String, Object> args = new HashMap<>();
+        args.put("arg", "foo");
+
+        assertEquals("hello foo", fmt.format("hello {arg}", args, Locale.ENGLISH));
+        assertEquals("hello foo", fmt.format("hello {arg}", args, Locale.ENGLISH));
+        assertEquals(0, fmt.getPatternCacheStats().requestCount());
+    }
+
+    @Test
+    public void testCompile() {
+        MessageFormat fmt = new MessageFormat();
+        CompiledMessage msg = fmt.compile("{count, plural, one {one {arg}} other {# {arg}s}}");
+
+        HashMap<String, Object> args = new HashMap<>();
+        args.put("arg", "foo");
+        args.put("count", 1);
+        assertEquals("one foo", msg.format(args, Locale.ENGLISH));
+        args.put("count", 2000);
+        assertEquals("2,000 foos", msg.format(args, Locale.ENGLISH));
+        assertEquals("2.000 foos", msg.format(args, Locale.GERMAN));
+
+        assertEquals(new HashSet<>(Arrays.asList("arg", "count")), msg.getArgumentNames());
+        assertSame(msg, fmt.compile(msg.getPattern()));
+    }
+
+    @Test
+    public void testFormatTo() throws Exception {
+        CompiledMessage msg = new MessageFormat()
+                .compile("{count, plural, one {one {arg}} other {# {arg}s}}");
+        HashMap<String, Object> args = new HashMap<>();
+        args.put("arg", "foo");
+        args.put("count", 3);
+
+        StringBuilder sb = new StringBuilder("x: ");
+        msg.formatTo(args, Locale.ENGLISH, sb);
+        assertEquals("x: 3 foos", sb.toString());
+
+        StringWriter writer = new StringWriter();
+        msg.formatTo(args, Locale.ENGLISH, writer);
+        assertEquals("3 foos", writer.toString());
+    }
+
+    @Test
+    public void testFormatToStreams() throws Exception {
+        CompiledMessage msg = new MessageFormat()
+                .compile("Grüße {name}: {count, plural, one {ein €} other {# €}} \u20AC\uD83D\uDE00");
+        HashMap<String, Object> args = new HashMap<>();
+        args.put("name", "Zoë \uD83D\uDE03 \uD800x");
+        args.put("count", 1234);
+        String expected = msg.format(args, Locale.GERMAN);
+
+        StringWriter writer = new StringWriter();
+        msg.formatTo(args, Locale.GERMAN, writer);
+        assertEquals(expected, writer.toString());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        msg.formatTo(args, Locale.GERMAN, out);
+        assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8), out.toByteArray());
+
+        ByteBuffer buffer = ByteBuffer.allocate(100);
+        msg.formatTo(args, Locale.GERMAN, buffer);
+        buffer.flip();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8), bytes);
+    }
+
+    @Test
+    public void testFormatSlots() {
+        CompiledMessage msg = new MessageFormat()
+                .compile("{a} {count, plural, one {one {b}} other {# {b}s}} {a}");
+        ArgumentSlots slots = msg.getArgumentSlots();
+        assertEquals(3, slots.size());
+
+        Object[] args = new Object[slots.size()];
+        args[slots.getSlot("a")] = "x";
+        args[slots.getSlot("b")] = "foo";
+        args[slots.getSlot("count")] = 2;
+        assertEquals("x 2 foos x", msg.format(args, Locale.ENGLISH));
+
+        // bound nodes still work with contexts based on a map
+        HashMap<String, Object> map = new HashMap<>();
+        map.put("a", "y");
+        map.put("b", "bar");
+        map.put("count", 1);
+        assertEquals("y one bar y", msg.getNode().format(
+                new FormattingContext(Locale.ENGLISH, map)));
+    }
+
+    @Test
+    public void testListener() {
+        List<String> events = new ArrayList<>();
+        MessageFormat fmt = new MessageFormat().withListener(new MessageFormatListener() {
+            @Override
+            public void cacheHit(String pattern) {
+                events.add("hit " + pattern);
+            }
+
+            @Override
+            public void cacheMiss(String pattern) {
+                events.add("miss " + pattern);
+            }
+
+            @Override
+            public void patternParsed(String pattern, long nanos) {
+                assertTrue(nanos >= 0);
+                events.add("parsed " + pattern);
+            }
+
+            @Override
+            public void parseFailed(String pattern, RuntimeException exception) {
+                events.add("parseFailed " + pattern);
+            }
+
+            @Override
+            public void messageFormatted(String pattern, Locale locale, long nanos) {
+                events.add("formatted " + pattern + " " + locale);
+            }
+
+            @Override
+            public void formatFailed(String pattern, Locale locale, RuntimeException exception) {
+                events.add("formatFailed " + pattern);
+            }
+        });
+        HashMap<String, Object> args = new HashMap<>();
+        args.put("n", 1);
+        fmt.format("{n}", args, Locale.ENGLISH);
+        fmt.format("{n}", args, Locale.GERMAN);
+        try {
+            fmt.compile("}");
+        } catch (RuntimeException e) {
+            // expected
+        }
+        args.put("n", "x");
+        try {
+            fmt.format("{n, plural, other {#}}", args, Locale.ENGLISH);
+        } catch (RuntimeException e) {
+            // expected
+        }
+
+        assertEquals(Arrays.asList("miss {n}", "parsed {n}", "formatted {n} en", "hit {n}",
+                "formatted {n} de", "miss }", "parseFailed }", "miss {n, plural, other {#}}",
+                "parsed {n, plural, other {#}}", "formatFailed {n, plural, other {#}}"), events);
+    }
+
+    @Test
+    public void testListenerCacheDisabled() {
+        List<String> events = new ArrayList<>();
+        MessageFormat fmt = new MessageFormat().withPatternCacheSize(0).withListener(
+                new MessageFormatListener() {
+                    @Override
+                    public void cacheHit(String pattern) {
+                        events.add("hit " + pattern);
+                    }
+
+                    @Override
+                    public void cacheMiss(String pattern) {
+                        events.add("miss " + pattern);
+                    }
+
+                    @Override
+                    public void patternParsed(String pattern, long nanos) {
+                        events.add("parsed " + pattern);
+                    }
+                });
+        fmt.compile("{n}");
+        fmt.compile("{n}");
+        assertEquals(Arrays.asList("parsed {n}", "parsed {n}"), events);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testCompileInvalid() {
+        new MessageFormat().compile("hello } {arg}");
+    }
 }
@@ -0,0 +1,134 @@
+package com.github.ruediste1.i18n.messageFormat;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.ruediste1.i18n.lString.LString;
+import com.github.ruediste1.i18n.messageFormat.ast.PatternNode;
+
+public class PatternBytecodeCompilerTest {
+
+    private Map<String, Object> args;
+
+    @Before
+    public void before() {
+        args = new HashMap<>();
+        args.put("a", "x");
+        args.put("b", LString.of("lstring"));
+        args.put("n", 2000);
+        args.put("d", LocalDateTime.of(2015, 3, 4, 10, 11, 12));
+    }
+
+    private void assertSameOutput(String pattern) {
+        MessageFormat interpreter = new MessageFormat()
+                .withBytecodeCompilationThreshold(0);
+        CompiledMessage msg = new MessageFormat()
+                .withBytecodeCompilationThreshold(1).compile(pattern);
+        for (Locale locale : new Locale[] { Locale.ENGLISH, Locale.GERMAN }) {
+            String expected = interpreter.format(pattern, args, locale);
+            assertEquals(pattern, expected, msg.format(args, locale));
+            assertTrue(pattern, msg.isBytecodeCompiled());
+            assertEquals(pattern, expected, msg.format(args, locale));
+        }
+    }
+
+    @Test
+    public void testSameOutput() {
+        assertSameOutput("");
+        assertSameOutput("hello");
+        assertSameOutput("{a}");
+        assertSameOutput("hello {a}, {b} and {missing}{a}!");
+        assertSameOutput("$$ $} $# {a}$x");
+        assertSameOutput("{n, number} {n, number, integer} {n, number, #,##0.00}");
+        assertSameOutput("{d, date} {d, time, short} {d, dateTime, medium}");
+        assertSameOutput("{n, plural, one {one {a}} =2000 {exact {b}} other {# {a}s}}");
+        assertSameOutput("{n, plural, one {one} other {# {a}s}} after");
+    }
+
+    @Test
+    public void testThreshold() {
+        CompiledMessage msg = new MessageFormat()
+                .withBytecodeCompilationThreshold(3).compile("hello {a}");
+        msg.format(args, Locale.ENGLISH);
+        msg.format(args, Locale.ENGLISH);
+        assertFalse(msg.isBytecodeCompiled());
+        assertEquals("hello x", msg.format(args, Locale.ENGLISH));
+        assertTrue(msg.isBytecodeCompiled());
+    }
+
+    @Test
+    public void testDisabled() {
+        CompiledMessage msg = new MessageFormat()
+                .withBytecodeCompilationThreshold(0).compile("hello {a}");
+        for (int i = 0; i < 10; i++) {
+            msg.format(args, Locale.ENGLISH);
+        }
+        assertFalse(msg.isBytecodeCompiled());
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        CompiledMessage msg = new MessageFormat().compile("hello {a}");
+        for (int i = 0; i < 10; i++) {
+            msg.format(args, Locale.ENGLISH);
+        }
+        assertFalse(msg.isBytecodeCompiled());
+        msg.batch(Locale.ENGLISH);
+        assertFalse(msg.isBytecodeCompiled());
+    }
+
+    @Test
+    public void testCompilationFailureReported() {
+        List<RuntimeException> failures = new ArrayList<>();
+        MessageFormat format = new MessageFormat()
+                .withBytecodeCompilationThreshold(2).withListener(
+                        new MessageFormatListener() {
+                            @Override
+                            public void compilationFailed(String pattern,
+                                    RuntimeException exception) {
+                                failures.add(exception);
+                            }
+                        });
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1500; i++) {
+            sb.append("{a} ");
+        }
+        CompiledMessage msg = format.compile(sb.toString());
+        for (int i = 0; i < 10; i++) {
+            msg.format(args, Locale.ENGLISH);
+        }
+        assertFalse(msg.isBytecodeCompiled());
+        assertEquals(1, failures.size());
+        assertTrue(failures.get(0).getMessage().contains("too many elements"));
+    }
+
+    @Test
+    public void testLongLiteral() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 35000; i++) {
+            sb.append((char) ('a' + i % 26));
+        }
+        sb.append("€{a}");
+        assertSameOutput(sb.toString());
+    }
+
+    @Test
+    public void testContextFromMap() {
+        PatternNode node = new MessageFormat().withBytecodeCompilationThreshold(0)
+                .compile("{a} and {b}").getNode();
+        PatternNode compiled = PatternBytecodeCompiler.compile(node);
+        assertEquals("x and lstring", compiled.format(new FormattingContext(
+                Locale.ENGLISH, args)));
+    }
+}
@@ -0,0 +1,85 @@
+package com.github.ruediste1.i18n.messageFormat;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.ListResourceBundle;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.github.ruediste1.i18n.lString.ResourceBundleResolver;
+import com.github.ruediste1.i18n.messageFormat.PatternPrecompiler.PrecompilationResult;
+
+public class PatternPrecompilerTest {
+
+    private static class Bundle extends ListResourceBundle {
+        private final Object[][] contents;
+
+        Bundle(Object[][] contents) {
+            this.contents = contents;
+        }
+
+        @Override
+        protected Object[][] getContents() {
+            return contents;
+        }
+    }
+
+    private ResourceBundleResolver resolver = locale -> Locale.GERMAN
+            .equals(locale) ? new Bundle(new Object[][] {
+            { "a", "Hallo {name}" }, { "b", "{n, plural, one {#} other {# Dinge}}" },
+            { "broken", "{n, unknown}" } }) : new Bundle(new Object[][] {
+            { "a", "Hello {name}" }, { "b", "{n, plural, one {#} other {# things}}" },
+            { "other", 3 } });
+
+    @Test
+    public void testPrecompile() {
+        MessageFormat format = new MessageFormat();
+        PrecompilationResult result = new PatternPrecompiler(format)
+                .precompile(resolver, Arrays.asList(Locale.ENGLISH, Locale.GERMAN));
+
+        assertEquals(5, result.getPatternCount());
+        assertEquals(1, result.getFailures().size());
+        assertEquals("broken", result.getFailures().get(0).getKey());
+        assertEquals(Locale.GERMAN, result.getFailures().get(0).getLocale());
+
+        long misses = format.getPatternCacheStats().missCount();
+        format.compile("Hallo {name}");
+        format.compile("{n, plural, one {#} other {# things}}");
+        assertEquals(misses, format.getPatternCacheStats().missCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCacheTooSmall() {
+        new PatternPrecompiler(new MessageFormat().withPatternCacheSize(4))
+                .precompile(resolver, Arrays.asList(Locale.ENGLISH, Locale.GERMAN));
+    }
+
+    @Test
+    public void testSharedPatternsCountedOnce() {
+        MessageFormat format = new MessageFormat().withPatternCacheSize(2);
+        PrecompilationResult result = new PatternPrecompiler(format).precompile(
+                locale -> new Bundle(new Object[][] { { "a", "Hello {name}" },
+                        { "b", "Bye {name}" } }),
+                Arrays.asList(Locale.ENGLISH, Locale.GERMAN, Locale.FRENCH));
+        assertEquals(6, result.getPatternCount());
+        assertEquals(0, result.getFailures().size());
+    }
+
+    @Test
+    public void testKeyFilter() {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            PrecompilationResult result = new PatternPrecompiler(
+                    new MessageFormat()).precompile(resolver,
+                    Arrays.asList(Locale.ENGLISH, Locale.GERMAN),
+                    key -> !key.equals("broken"), pool);
+            assertEquals(4, result.getPatternCount());
+            assertEquals(0, result.getFailures().size());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.github.ruediste1.i18n.messageFormat;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.ruediste.lambdaPegParser.DefaultParsingContext;
+import com.github.ruediste1.i18n.messageFormat.MessageFormat.ParserEngine;
+import com.github.ruediste1.i18n.messageFormat.ast.LiteralNode;
+import com.github.ruediste1.i18n.messageFormat.ast.PatternNode;
+import com.github.ruediste1.i18n.messageFormat.ast.SequenceNode;
+import com.github.ruediste1.i18n.messageFormat.ast.SimpleArgumentNode;
+import com.github.ruediste1.i18n.messageFormat.formatTypeParsers.FormatTypeParser;
+
+public class PatternScannerTest {
+
+    private MessageFormat peg;
+    private MessageFormat scanner;
+    private Map<String, Object> args;
+
+    @Before
+    public void setup() {
+        peg = new MessageFormat().withPatternCacheSize(0);
+        scanner = peg.withParserEngine(ParserEngine.SCANNER);
+        args = new HashMap<>();
+        args.put("arg", "foo");
+        args.put("n", 3);
+        args.put("date", LocalDateTime.of(2014, 1, 2, 10, 1));
+    }
+
+    private String formatOrFail(MessageFormat fmt, String pattern) {
+        try {
+            return fmt.format(pattern, args, Locale.ENGLISH);
+        } catch (RuntimeException e) {
+            return "failed";
+        }
+    }
+
+    private void assertAgree(String pattern) {
+        assertEquals(pattern, formatOrFail(peg, pattern),
+                formatOrFail(scanner, pattern));
+    }
+
+    @Test
+    public void testEnginesAgree() {
+        assertAgree("");
+        assertAgree("plain text # with hash");
+        assertAgree("{arg}");
+        assertAgree("{ arg } and {arg}{arg}");
+        assertAgree("a { b");
+        assertAgree("a {");
+        assertAgree("a {arg");
+        assertAgree("$$ and ${ and $} and $");
+        assertAgree("{n, number}, {n, number, integer}, {n, number, percent}");
+        assertAgree("{n, number, 00.00'}'''} {n, number, '}'}");
+        assertAgree("{n, number, integerfoo}");
+        assertAgree("{n, number,}");
+        assertAgree("{date, date} {date, time, short} {date, dateTime, isoLocal}");
+        assertAgree("{date, date, }");
+        assertAgree("{date, date, unknown}");
+        assertAgree("{date, dateTimePattern, dd MM yyyy ('hello' a) '}' } foo");
+        assertAgree("{n, plural, =0 {none} one {# item} other {# items, $# {arg}}}");
+        assertAgree("{n, plural, = 3 {three {arg}} other {{n, plural, other {#}}}}");
+        assertAgree("{n, plural, one {abc}");
+        assertAgree("{n, plural, one {abc} other}");
+        assertAgree("{n, plural, =a {abc}}");
+        assertAgree("{n, plural}");
+        assertAgree("{n, unknown}");
+        assertAgree("a } b");
+        assertAgree("}");
+    }
+
+    @Test
+    public void testLiteralRunsMerged() {
+        PatternNode node = new PatternScanner("a$bc{arg}$}d",
+                new HashMap<>(), new HashMap<String, Object>().keySet())
+                .fullPattern();
+        List<PatternNode> nodes = ((SequenceNode) node).getNodes().stream()
+                .collect(toList());
+        assertEquals(3, nodes.size());
+        assertEquals("abc", ((LiteralNode) nodes.get(0)).getLiteral());
+        assertEquals(SimpleArgumentNode.class, nodes.get(1).getClass());
+        assertEquals("}d", ((LiteralNode) nodes.get(2)).getLiteral());
+    }
+
+    public static class UpperCaseParser extends FormatTypeParser {
+
+        public UpperCaseParser(DefaultParsingContext ctx) {
+            super(ctx);
+        }
+
+        @Override
+        public PatternNode style(String argumentName) {
+            return new SimpleArgumentNode(argumentName) {
+                @Override
+                public String format(FormattingContext ctx) {
+                    return super.format(ctx).toUpperCase();
+                }
+            };
+        }
+    }
+
+    @Test
+    public void testFallbackForCustomFormatType() {
+        Map<String, Class<? extends FormatTypeParser>> parsers = MessageFormat
+                .defaultFormatTypeParsers();
+        parsers.put("upper", UpperCaseParser.class);
+        MessageFormat fmt = scanner.withFormatTypeParsers(parsers);
+        assertEquals("hello FOO 3",
+                fmt.format("hello {arg, upper} {n, number}", args,
+                        Locale.ENGLISH));
+    }
+}
@@ -0,0 +1,56 @@
+package com.github.ruediste1.i18n.messageFormat.ast;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
+import java.util.Collections;
+import java.util.Locale;
+
+import org.junit.Test;
+
+import com.github.ruediste1.i18n.messageFormat.FormattingContext;
+
+public class DateTimeNodeTest {
+
+	private final LocalDate date = LocalDate.of(2015, 3, 14);
+
+	private String format(DateTimeNode node, Locale locale) {
+		StringBuilder sb = new StringBuilder();
+		node.formatTo(
+				new FormattingContext(locale, Collections.singletonMap(
+						"date", date)), sb);
+		return sb.toString();
+	}
+
+	@Test
+	public void testLocales() {
+		DateTimeFormatter formatter = DateTimeFormatter
+				.ofLocalizedDate(FormatStyle.LONG);
+		DateTimeNode node = new DateTimeNode("date", formatter);
+		for (Locale locale : new Locale[] { Locale.ENGLISH, Locale.GERMAN,
+				Locale.FRENCH, Locale.ENGLISH }) {
+			assertEquals(formatter.withLocale(locale).format(date),
+					format(node, locale));
+		}
+		assertEquals("March 14, 2015", format(node, Locale.US));
+		assertEquals("14. März 2015", format(node, Locale.GERMAN));
+	}
+
+	@Test
+	public void testFormattersReused() {
+		DateTimeNode node = new DateTimeNode("date",
+				DateTimeFormatter.ofLocalizedDate(FormatStyle.LONG));
+		DateTimeFormatter german = node.getFormatter(Locale.GERMAN);
+		assertEquals(Locale.GERMAN, german.getLocale());
+		format(node, Locale.GERMAN);
+		format(node, Locale.ENGLISH);
+		assertSame(german, node.getFormatter(Locale.GERMAN));
+		assertSame(node.getFormatter(Locale.ENGLISH),
+				node.getFormatter(Locale.ENGLISH));
+		assertNotSame(german, node.getFormatter(Locale.ENGLISH));
+	}
+}
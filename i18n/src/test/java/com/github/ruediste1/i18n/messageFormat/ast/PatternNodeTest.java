@@ -0,0 +1,69 @@
+package com.github.ruediste1.i18n.messageFormat.ast;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.github.ruediste1.i18n.messageFormat.FormattingContext;
+
+public class PatternNodeTest {
+
+	private final FormattingContext ctx = new FormattingContext(
+			Locale.ENGLISH, Collections.singletonMap("arg", "foo"));
+
+	private String formatTo(PatternNode node) {
+		StringBuilder sb = new StringBuilder();
+		node.formatTo(ctx, sb);
+		return sb.toString();
+	}
+
+	@Test
+	public void testOnlyFormatImplemented() {
+		PatternNode node = new PatternNode() {
+			@Override
+			public String format(FormattingContext ctx) {
+				return "x";
+			}
+
+			@Override
+			public Set<String> argumentNames() {
+				return Collections.emptySet();
+			}
+		};
+		assertEquals("x", formatTo(node));
+	}
+
+	@Test
+	public void testOverriddenFormatHonoured() {
+		PatternNode literal = new LiteralNode("a") {
+			@Override
+			public String format(FormattingContext ctx) {
+				return super.format(ctx) + "!";
+			}
+		};
+		PatternNode argument = new SimpleArgumentNode("arg") {
+			@Override
+			public String format(FormattingContext ctx) {
+				return super.format(ctx).toUpperCase();
+			}
+		};
+		assertEquals("a!", formatTo(literal));
+		assertEquals("FOO", formatTo(argument));
+		assertEquals("FOO", argument.format(ctx));
+		assertEquals("a!FOO",
+				formatTo(new SequenceNode(Arrays.asList(literal, argument))));
+	}
+
+	@Test
+	public void testBuiltInNodes() {
+		PatternNode argument = new SimpleArgumentNode("arg");
+		assertEquals("foo", formatTo(argument));
+		assertEquals("foo", argument.format(ctx));
+		assertEquals("a", new LiteralNode("a").format(ctx));
+	}
+}
@@ -1,18 +1,39 @@
 package com.github.ruediste1.i18n.messageFormat.formatTypeParsers;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
 import org.junit.Before;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
 
 import com.github.ruediste1.i18n.messageFormat.MessageFormat;
+import com.github.ruediste1.i18n.messageFormat.MessageFormat.ParserEngine;
 
+/**
+ * Base class for the format tests. All tests are run against every
+ * {@link ParserEngine}.
+ */
+@RunWith(Parameterized.class)
 public class FormatTypeParserTestBase {
 	protected MessageFormat format;
 
+	@Parameter
+	public ParserEngine engine;
+
+	@Parameters(name = "{0}")
+	public static Collection<Object[]> engines() {
+		return Arrays.asList(new Object[][] { { ParserEngine.PEG },
+				{ ParserEngine.SCANNER } });
+	}
+
 	@Before
 	public void setup() {
-		format = new MessageFormat();
+		format = new MessageFormat().withParserEngine(engine);
 	}
 
 	protected Map<String, Object> map(String key, Object value) {
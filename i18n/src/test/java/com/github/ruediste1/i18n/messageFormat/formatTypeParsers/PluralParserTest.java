@@ -6,6 +6,10 @@ import java.util.Locale;
 
 import org.junit.Test;
 
+import com.github.ruediste1.i18n.messageFormat.FormattingContext;
+import com.github.ruediste1.i18n.messageFormat.ast.LiteralNode;
+import com.ibm.icu.text.PluralRules;
+
 public class PluralParserTest extends FormatTypeParserTestBase {
 
 	@Test
@@ -19,6 +23,15 @@ public class PluralParserTest extends FormatTypeParserTestBase {
 				format.format(template, map("param", 3), Locale.ENGLISH));
 	}
 
+	@Test
+	public void testPluralWithoutHash() {
+		String template = "{param, plural, one {one onion} other {many onions}}";
+		assertEquals("one onion",
+				format.format(template, map("param", 1), Locale.ENGLISH));
+		assertEquals("many onions",
+				format.format(template, map("param", 3), Locale.ENGLISH));
+	}
+
 	@Test
 	public void testPluralWithNewlines() {
 		String template = "there {param, plural, \n" + "one {is one onion} \n"
@@ -30,4 +43,74 @@ public class PluralParserTest extends FormatTypeParserTestBase {
 		assertEquals("there are 3 on#ions",
 				format.format(template, map("param", 3), Locale.ENGLISH));
 	}
+
+	@Test
+	public void testPluralNumberTypes() {
+		String template = "{param, plural, one {one} =2 {two} =0 {none} other {# many}}";
+		assertEquals("one", format.format(template, map("param", 1L), Locale.ENGLISH));
+		assertEquals("two", format.format(template, map("param", (short) 2), Locale.ENGLISH));
+		assertEquals("two", format.format(template, map("param", 2.0), Locale.ENGLISH));
+		assertEquals("none", format.format(template, map("param", 0.0), Locale.ENGLISH));
+		assertEquals("1.5 many", format.format(template, map("param", 1.5), Locale.ENGLISH));
+		assertEquals("1,000 many", format.format(template, map("param", 1000), Locale.ENGLISH));
+		assertEquals("1.000 many", format.format(template, map("param", 1000L), Locale.GERMAN));
+	}
+
+	@Test
+	public void testExplicitValuesMatchLikeDoubleEquals() {
+		String template = "{param, plural, =0 {zero} other {other}}";
+		assertEquals("zero", format.format(template, map("param", 0), Locale.ENGLISH));
+		assertEquals("zero", format.format(template, map("param", 0.0), Locale.ENGLISH));
+		assertEquals("other", format.format(template, map("param", -0.0), Locale.ENGLISH));
+		assertEquals("other", format.format(template, map("param", Double.NaN), Locale.ENGLISH));
+	}
+
+	@Test
+	public void testIntegerFastPath() {
+		String template = "{param, plural, =0 {none} =3 {three} one {one} other {# many}}";
+		assertEquals("none", format.format(template, map("param", 0), Locale.ENGLISH));
+		assertEquals("three", format.format(template, map("param", (byte) 3), Locale.ENGLISH));
+		assertEquals("three", format.format(template, map("param", 3.0), Locale.ENGLISH));
+		assertEquals("one", format.format(template, map("param", 1), Locale.ENGLISH));
+		assertEquals("one", format.format(template, map("param", 1), Locale.ENGLISH));
+		assertEquals("2 many", format.format(template, map("param", 2L), Locale.ENGLISH));
+		assertEquals("-1 many", format.format(template, map("param", -1), Locale.ENGLISH));
+		assertEquals("1,000,000 many", format.format(template, map("param", 1000000), Locale.ENGLISH));
+		assertEquals("1.5 many", format.format(template, map("param", 1.5), Locale.ENGLISH));
+
+		// French selects "one" for 0 and 1
+		String french = "{param, plural, one {un} other {plusieurs}}";
+		assertEquals("un", format.format(french, map("param", 0), Locale.FRENCH));
+		assertEquals("plusieurs", format.format(french, map("param", 2), Locale.FRENCH));
+	}
+
+	@Test
+	public void testOverriddenPluralRules() {
+		PluralParser.PluralNode node = new PluralParser.PluralNode("param") {
+			@Override
+			protected PluralRules getPluralRules(Locale locale) {
+				return PluralRules.createRules("few: n in 0..10");
+			}
+		};
+		node.addRule("few", new LiteralNode("few"));
+		node.addRule("other", new LiteralNode("other"));
+		assertEquals("few", node.format(new FormattingContext(Locale.ENGLISH, map("param", 3))));
+		assertEquals("other", node.format(new FormattingContext(Locale.ENGLISH, map("param", 11))));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testKeywordRulesReadOnly() {
+		PluralParser.PluralNode node = new PluralParser.PluralNode("param");
+		node.addRule("one", new LiteralNode("one"));
+		assertEquals(1, node.keywordRules.size());
+		node.keywordRules.clear();
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testExplicitRulesReadOnly() {
+		PluralParser.PluralNode node = new PluralParser.PluralNode("param");
+		node.addRule("=1", new LiteralNode("one"));
+		assertEquals(1, node.explicitRules.size());
+		node.explicitRules.clear();
+	}
 }
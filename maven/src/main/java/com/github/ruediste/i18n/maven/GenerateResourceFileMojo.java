@@ -1,8 +1,12 @@
 package com.github.ruediste.i18n.maven;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.net.MalformedURLException;
 import java.net.URL;
@@ -11,6 +15,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
 
@@ -32,6 +37,8 @@ import org.reflections.util.FilterBuilder;
 import com.github.ruediste1.i18n.lString.AdditionalResourceKeyCollector;
 import com.github.ruediste1.i18n.lString.AdditionalResourceKeyProvider;
 import com.github.ruediste1.i18n.lString.TranslatedString;
+import com.github.ruediste1.i18n.lString.TranslationCatalog;
+import com.github.ruediste1.i18n.lString.TranslationCatalogWriter;
 import com.github.ruediste1.i18n.label.LabelUtil;
 import com.github.ruediste1.i18n.message.TMessagePatternExtractionUtil;
 import com.google.common.base.Charsets;
@@ -58,6 +65,29 @@ public class GenerateResourceFileMojo extends AbstractMojo {
     @Parameter(defaultValue = "${project.build.directory}/translations.properties", required = true)
     private File outputFile;
 
+    /**
+     * Optional binary translation catalog to write, to be read using the
+     * {@link TranslationCatalog}. The catalog contains the generated entries
+     * as {@link Locale#ROOT} translations, along with the translations found
+     * in the {@link #translationDirectory}.
+     */
+    @Parameter
+    private File catalogFile;
+
+    /**
+     * Directory containing translated properties files to be included in the
+     * catalog. The files are named
+     * {@code <translationBaseName>_<locale>.properties} and are read as UTF-8.
+     */
+    @Parameter
+    private File translationDirectory;
+
+    /**
+     * Base name of the translated properties files
+     */
+    @Parameter(defaultValue = "translations")
+    private String translationBaseName;
+
     /**
      * Comma separated list of base packages to scan
      */
@@ -150,10 +180,101 @@ public class GenerateResourceFileMojo extends AbstractMojo {
                 throw new MojoExecutionException("error while writing output",
                         e);
             }
+
+            if (catalogFile != null)
+                writeCatalog(properties);
         } catch (DependencyResolutionRequiredException e) {
             throw new MojoExecutionException("Dependency resolution failed", e);
         }
 
         getLog().info("Resource File generated");
     }
+
+    private void writeCatalog(Properties generated)
+            throws MojoExecutionException {
+        getLog().info("Generating Translation Catalog " + catalogFile + " ...");
+        TranslationCatalogWriter writer = new TranslationCatalogWriter();
+        writer.add(Locale.ROOT, toMap(generated));
+
+        File[] files = translationDirectory == null ? null
+                : translationDirectory.listFiles();
+        if (files != null) {
+            String prefix = translationBaseName + "_";
+            for (File file : files) {
+                String name = file.getName();
+                if (!name.startsWith(prefix)
+                        || !name.endsWith(".properties"))
+                    continue;
+                Locale locale = toLocale(name.substring(prefix.length(),
+                        name.length() - ".properties".length()));
+                getLog().debug("Adding translations for " + locale + " from "
+                        + file);
+                Properties translations = new Properties();
+                try (InputStreamReader in = new InputStreamReader(
+                        new FileInputStream(file), Charsets.UTF_8)) {
+                    translations.load(in);
+                } catch (IOException e) {
+                    throw new MojoExecutionException("error while reading "
+                            + file, e);
+                }
+                writer.add(locale, toMap(translations));
+            }
+        }
+
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(
+                catalogFile))) {
+            writer.write(out);
+        } catch (IOException e) {
+            throw new MojoExecutionException("error while writing catalog", e);
+        }
+    }
+
+    /**
+     * Parse the locale suffix of a translation file name, the inverse of
+     * {@link java.util.ResourceBundle.Control#toBundleName(String, Locale)}.
+     * The suffix is not a language tag: legacy locales such as
+     * <code>ja_JP_JP</code> and variants such as <code>POSIX</code> are only
+     * mapped correctly by the {@link Locale} constructor. A four letter
+     * segment following the language is the script, as in
+     * <code>zh_Hant_TW</code>.
+     */
+    static Locale toLocale(String suffix) {
+        String[] parts = suffix.split("_", 2);
+        String language = parts[0];
+        String rest = parts.length > 1 ? parts[1] : "";
+
+        String script = "";
+        parts = rest.split("_", 2);
+        if (isScript(parts[0])) {
+            script = parts[0];
+            rest = parts.length > 1 ? parts[1] : "";
+        }
+
+        parts = rest.split("_", 2);
+        Locale locale = new Locale(language, parts[0],
+                parts.length > 1 ? parts[1] : "");
+        if (script.isEmpty())
+            return locale;
+        return new Locale.Builder().setLocale(locale).setScript(script)
+                .build();
+    }
+
+    private static boolean isScript(String segment) {
+        if (segment.length() != 4)
+            return false;
+        for (int i = 0; i < segment.length(); i++) {
+            char ch = segment.charAt(i);
+            if (!(ch >= 'a' && ch <= 'z' || ch >= 'A' && ch <= 'Z'))
+                return false;
+        }
+        return true;
+    }
+
+    private Map<String, String> toMap(Properties properties) {
+        Map<String, String> result = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            result.put(key, properties.getProperty(key));
+        }
+        return result;
+    }
 }